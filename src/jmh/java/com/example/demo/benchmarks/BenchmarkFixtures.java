@@ -0,0 +1,78 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.mapper.CommentMapperImpl;
+import com.example.demo.mapper.ProjectMapperImpl;
+import com.example.demo.mapper.TaskMapperImpl;
+import com.example.demo.mapper.UserMapperImpl;
+import com.example.demo.model.Comment;
+import com.example.demo.model.Project;
+import com.example.demo.model.Task;
+import com.example.demo.model.TaskPriority;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.model.User;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Datos en memoria para los benchmarks: no hay base de datos, las entidades se construyen a mano
+ * con tamaños parecidos a los de producción.
+ */
+public final class BenchmarkFixtures {
+    private static final Instant NOW = Instant.parse("2025-01-15T09:00:00Z");
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user(String username) {
+        User user = new User(username, "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1x8bHeNx0sK6n3Gk3fV5c2e", username + "@example.com");
+        user.setId(UUID.nameUUIDFromBytes(username.getBytes()));
+        return user;
+    }
+
+    public static Project project() {
+        Project project = new Project("Benchmark project", "Project used by the JMH benchmarks", NOW, NOW.plus(90, ChronoUnit.DAYS));
+        project.setId(UUID.nameUUIDFromBytes("benchmark-project".getBytes()));
+        return project;
+    }
+
+    public static List<Task> tasks(Project project, int count) {
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskPriority[] priorities = TaskPriority.values();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Una de cada cuatro tareas sin asignar, como en los tableros reales
+            User assignee = i % 4 == 0 ? null : user("member_" + (i % 8));
+            Task task = new Task("Task " + i, "Description of task number " + i + " with some detail for the board",
+                    statuses[i % statuses.length], priorities[i % priorities.length],
+                    NOW.plus(i % 30, ChronoUnit.DAYS), assignee, project);
+            task.setId(UUID.nameUUIDFromBytes(("task-" + i).getBytes()));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    public static List<Comment> comments(Task task, int count) {
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Comment comment = new Comment("Comment " + i + " on " + task.getName(), NOW.plusSeconds(i * 60L),
+                    user("member_" + (i % 8)), task);
+            comment.setId(UUID.nameUUIDFromBytes(("comment-" + i).getBytes()));
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    /**
+     * Contexto mínimo con los mappers generados por MapStruct, para que las dependencias
+     * entre ellos ({@code uses = UserMapper.class}) se inyecten igual que en la aplicación.
+     */
+    public static AnnotationConfigApplicationContext mapperContext() {
+        return new AnnotationConfigApplicationContext(
+                UserMapperImpl.class, TaskMapperImpl.class, ProjectMapperImpl.class, CommentMapperImpl.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.controller.dto.CommentResponseDto;
+import com.example.demo.controller.dto.ProjectResponseDto;
+import com.example.demo.controller.dto.TaskResponseDto;
+import com.example.demo.mapper.CommentMapper;
+import com.example.demo.mapper.ProjectMapper;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.model.Comment;
+import com.example.demo.model.Project;
+import com.example.demo.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de los {@code toResponse} de MapStruct por entidad.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private AnnotationConfigApplicationContext context;
+    private TaskMapper taskMapper;
+    private ProjectMapper projectMapper;
+    private CommentMapper commentMapper;
+
+    private Project project;
+    private Task assignedTask;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixtures.mapperContext();
+        taskMapper = context.getBean(TaskMapper.class);
+        projectMapper = context.getBean(ProjectMapper.class);
+        commentMapper = context.getBean(CommentMapper.class);
+
+        project = BenchmarkFixtures.project();
+        assignedTask = BenchmarkFixtures.tasks(project, 2).get(1);
+        comment = BenchmarkFixtures.comments(assignedTask, 1).get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskResponseDto taskToResponse() {
+        return taskMapper.toResponse(assignedTask);
+    }
+
+    @Benchmark
+    public ProjectResponseDto projectToResponse() {
+        return projectMapper.toResponse(project);
+    }
+
+    @Benchmark
+    public CommentResponseDto commentToResponse() {
+        return commentMapper.toResponse(comment);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.controller.dto.CommentResponseDto;
+import com.example.demo.controller.dto.TaskResponseDto;
+import com.example.demo.controller.responses.Response;
+import com.example.demo.mapper.CommentMapper;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.model.Task;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de {@code Response<List<TaskResponseDto>>} (el cuerpo de GET /api/project/{id}/tasks) y
+ * {@code Response<List<CommentResponseDto>>} (GET .../comments) en JSON, Smile y CBOR, con un ObjectMapper
+ * configurado como el de Spring Boot. El tamaño de cada formato lo comprueba ResponseEncodingSizeTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    public int tasks;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectWriter writer;
+    private Response<List<TaskResponseDto>> taskResponse;
+    private Response<List<CommentResponseDto>> commentResponse;
+
+    @Setup
+    public void setUp() {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        writer = Jackson2ObjectMapperBuilder.json().factory(factory).build().writer();
+        try (AnnotationConfigApplicationContext context = BenchmarkFixtures.mapperContext()) {
+            TaskMapper taskMapper = context.getBean(TaskMapper.class);
+            CommentMapper commentMapper = context.getBean(CommentMapper.class);
+            List<Task> taskList = BenchmarkFixtures.tasks(BenchmarkFixtures.project(), tasks);
+            taskResponse = new Response<>("SUCCESS", "Tasks retrieved successfully",
+                    taskList.stream().map(taskMapper::toResponse).toList(), null);
+            commentResponse = new Response<>("SUCCESS", "Comments found",
+                    BenchmarkFixtures.comments(taskList.get(0), tasks).stream().map(commentMapper::toResponse).toList(), null);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws Exception {
+        return writer.writeValueAsBytes(taskResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeCommentList() throws Exception {
+        return writer.writeValueAsBytes(commentResponse);
+    }
+}
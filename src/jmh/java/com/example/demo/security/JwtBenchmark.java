@@ -0,0 +1,83 @@
+package com.example.demo.security;
+
+import com.example.demo.benchmarks.BenchmarkFixtures;
+import com.example.demo.model.User;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación y validación de tokens, y extracción del token de las cookies en {@link JwtAuthFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+    private AnnotationConfigApplicationContext context;
+    private JwtTokenUtil jwtTokenUtil;
+    private JwtAuthFilter filter;
+    private User user;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("jwt", Map.of(
+                "jwt.secret-key", "benchmark-secret-key-that-is-long-enough-for-hs512-signatures-0123456789abcdef",
+                "jwt.access-expiration", "900000",
+                "jwt.issuer", "my-app")));
+        context.registerBean(Clock.class, Clock::systemUTC);
+        context.register(JwtTokenUtil.class);
+        context.refresh();
+        jwtTokenUtil = context.getBean(JwtTokenUtil.class);
+
+        // Solo se usa getJwtFromCookies, que no toca las dependencias del filtro
+        filter = new JwtAuthFilter(jwtTokenUtil, null, null, null, null);
+
+        user = BenchmarkFixtures.user("benchmark_user");
+        token = jwtTokenUtil.generateToken(user);
+        request = new MockHttpServletRequest("GET", "/api/project");
+        request.setCookies(new Cookie("JSESSIONID", "ignored"), new Cookie("access_token", token),
+                new Cookie("refresh_token", "ignored"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public String getJwtFromCookies() {
+        return filter.getJwtFromCookies(request);
+    }
+}
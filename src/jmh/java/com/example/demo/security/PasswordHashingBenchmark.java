@@ -0,0 +1,67 @@
+package com.example.demo.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comprobaciones de contraseña por segundo según el coste de BCrypt.
+ * <p>
+ * {@code matchesOnCallerThread} usa un solo hilo, así que da los logins por segundo de un núcleo.
+ * {@code matchesThroughPool} lanza tantos hilos como núcleos contra {@link BoundedPasswordEncoder}
+ * con un hilo de hash por núcleo, para ver el coste de pasar por el pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder direct;
+    private BoundedPasswordEncoder bounded;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        direct = new BCryptPasswordEncoder(strength);
+        bounded = new BoundedPasswordEncoder(strength, cores, cores * 4, 1);
+        hash = direct.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bounded.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean matchesOnCallerThread() {
+        return direct.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean matchesThroughPool() {
+        return bounded.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.security.aspect;
+
+import com.example.demo.benchmarks.BenchmarkFixtures;
+import com.example.demo.controller.anotations.projects.RequireProjectRole;
+import com.example.demo.metrics.HotPathMetrics;
+import com.example.demo.model.Project;
+import com.example.demo.model.ProjectRole;
+import com.example.demo.model.User;
+import com.example.demo.model.UserHasProjects;
+import com.example.demo.service.ProjectService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sobrecoste de {@link RequireProjectRoleAspect#checkProjectRole} sobre un método anotado, con un
+ * {@link ProjectService} que devuelve la relación sin ir a la base de datos.
+ * {@code direct} es la misma llamada sin proxy, como referencia.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectRoleAspectBenchmark {
+
+    public static class GuardedHandler {
+        @RequireProjectRole(ProjectRole.ADMIN)
+        public UUID handle(UUID projectId) {
+            return projectId;
+        }
+    }
+
+    private GuardedHandler direct;
+    private GuardedHandler guarded;
+    private UUID projectId;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkFixtures.user("benchmark_admin");
+        Project project = BenchmarkFixtures.project();
+        projectId = project.getId();
+        UserHasProjects relation = new UserHasProjects(user, project, ProjectRole.ADMIN);
+
+        ProjectService projectService = new ProjectService(null, null, null, null, null, null, null, null) {
+            @Override
+            public Optional<UserHasProjects> getRelationSafe(UUID userId, UUID id) {
+                return Optional.of(relation);
+            }
+        };
+        RequireProjectRoleAspect aspect = new RequireProjectRoleAspect(projectService, new HotPathMetrics(new SimpleMeterRegistry()));
+
+        direct = new GuardedHandler();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new GuardedHandler());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        guarded = factory.getProxy();
+
+        // Scope.Thread: el setup se ejecuta en el mismo hilo que el benchmark
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public UUID direct() {
+        return direct.handle(projectId);
+    }
+
+    @Benchmark
+    public UUID checkProjectRole() {
+        return guarded.handle(projectId);
+    }
+}
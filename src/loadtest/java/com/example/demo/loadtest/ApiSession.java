@@ -0,0 +1,74 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sesión HTTP de un usuario virtual. La cookie de acceso se guarda a mano: el CookieManager del JDK
+ * no reenvía cookies {@code Secure} por http.
+ */
+final class ApiSession {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private String accessCookie;
+
+    ApiSession(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+    }
+
+    static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    void login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = post("/api/auth/login", Map.of("username", username, "password", password));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.statusCode());
+        }
+        accessCookie = response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("access_token="))
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';') < 0 ? cookie.length() : cookie.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No access_token cookie for " + username));
+    }
+
+    HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+        return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    HttpResponse<byte[]> post(String path, Object body) throws IOException, InterruptedException {
+        return client.send(request(path)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    static JsonNode data(HttpResponse<byte[]> response) throws IOException {
+        return MAPPER.readTree(response.body()).path("data");
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (accessCookie != null) {
+            builder.header("Cookie", accessCookie);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latencias de un usuario virtual, por endpoint. Cada hilo tiene el suyo y se fusionan al final,
+ * así que no hay contención mientras dura la prueba.
+ */
+final class LatencyRecorder {
+
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i]);
+            }
+            errors += other.errors;
+        }
+    }
+
+    private final Map<String, Samples> byEndpoint = new LinkedHashMap<>();
+
+    void record(String endpoint, long nanos, boolean error) {
+        Samples samples = byEndpoint.computeIfAbsent(endpoint, e -> new Samples());
+        samples.add(nanos);
+        if (error) {
+            samples.errors++;
+        }
+    }
+
+    void clear() {
+        byEndpoint.clear();
+    }
+
+    Map<String, Samples> samples() {
+        return byEndpoint;
+    }
+
+    static Map<String, Samples> merge(Iterable<LatencyRecorder> recorders) {
+        Map<String, Samples> merged = new LinkedHashMap<>();
+        for (LatencyRecorder recorder : recorders) {
+            recorder.byEndpoint.forEach((endpoint, samples) ->
+                    merged.computeIfAbsent(endpoint, e -> new Samples()).addAll(samples));
+        }
+        return merged;
+    }
+}
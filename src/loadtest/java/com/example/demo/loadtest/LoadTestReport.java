@@ -0,0 +1,64 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput y percentiles de latencia por endpoint, en consola y en JSON.
+ */
+record LoadTestReport(double durationSeconds, int concurrency, List<EndpointStats> endpoints) {
+
+    record EndpointStats(String endpoint, long requests, long errors, double throughput,
+                         double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    static LoadTestReport of(Map<String, LatencyRecorder.Samples> samples, double durationSeconds, int concurrency) {
+        List<EndpointStats> endpoints = new ArrayList<>();
+        LatencyRecorder.Samples total = new LatencyRecorder.Samples();
+        samples.forEach((endpoint, endpointSamples) -> {
+            endpoints.add(stats(endpoint, endpointSamples, durationSeconds));
+            total.addAll(endpointSamples);
+        });
+        endpoints.add(stats("TOTAL", total, durationSeconds));
+        return new LoadTestReport(durationSeconds, concurrency, endpoints);
+    }
+
+    private static EndpointStats stats(String endpoint, LatencyRecorder.Samples samples, double durationSeconds) {
+        long[] sorted = samples.sorted();
+        return new EndpointStats(endpoint, sorted.length, samples.errors(), sorted.length / durationSeconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    // Percentil por rango más cercano
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    void print() {
+        System.out.printf("%nLoad test: %d virtual users, %.0f s measured%n", concurrency, durationSeconds);
+        System.out.printf("%-55s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats stats : endpoints) {
+            System.out.printf("%-55s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.endpoint(), stats.requests(), stats.errors(), stats.throughput(),
+                    stats.p50Ms(), stats.p90Ms(), stats.p99Ms(), stats.p999Ms(), stats.maxMs());
+        }
+    }
+
+    void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+    }
+}
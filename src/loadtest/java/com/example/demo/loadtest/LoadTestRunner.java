@@ -0,0 +1,286 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.TestProject01Application;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prueba de carga repetible: levanta PostgreSQL con Testcontainers y la aplicación en este mismo
+ * proceso (o usa un servidor ya arrancado con {@code loadtest.base-url}), genera datos sintéticos con
+ * {@code POST /api/dev/seed/synthetic} y lanza usuarios virtuales con {@link HttpClient} contra los
+ * endpoints de lectura más usados y la creación de comentarios.
+ * <p>
+ * Se configura con propiedades de sistema {@code loadtest.*} (ver {@link Settings}); desde Maven:
+ * {@code mvn -Ploadtest verify -Dloadtest.args="-Dloadtest.tasks=1000000 -Dloadtest.concurrency=64"}.
+ * El informe se imprime por consola y se escribe en {@code target/loadtest-report.json}.
+ */
+public final class LoadTestRunner {
+
+    // username y password: cuenta con la que se llama al generador, que exige sesión
+    record Settings(String baseUrl, String username, String password, String postgresImage, int users, int projects,
+                    long tasks, long comments, long seed, int concurrency, int warmupSeconds, int durationSeconds,
+                    String report) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    System.getProperty("loadtest.base-url"),
+                    System.getProperty("loadtest.username", "admin"),
+                    System.getProperty("loadtest.password", "admin123"),
+                    System.getProperty("loadtest.postgres-image", "postgres:16-alpine"),
+                    Integer.getInteger("loadtest.users", 10_000),
+                    Integer.getInteger("loadtest.projects", 2_000),
+                    Long.getLong("loadtest.tasks", 200_000L),
+                    Long.getLong("loadtest.comments", 500_000L),
+                    Long.getLong("loadtest.seed", 42L),
+                    Integer.getInteger("loadtest.concurrency", 32),
+                    Integer.getInteger("loadtest.warmup-seconds", 15),
+                    Integer.getInteger("loadtest.duration-seconds", 60),
+                    System.getProperty("loadtest.report", "target/loadtest-report.json"));
+        }
+    }
+
+    // Endpoints y peso relativo de cada uno en la mezcla de peticiones
+    enum Operation {
+        LIST_PROJECTS("GET /api/project", 20),
+        LIST_TASKS("GET /api/project/{id}/tasks", 30),
+        LIST_MEMBERS("GET /api/project/{id}/members", 10),
+        PROJECT_STATS("GET /api/project/{id}/stats", 10),
+        MY_WORK("GET /api/me/work", 10),
+        LIST_COMMENTS("GET /api/project/{id}/tasks/{taskId}/comments", 15),
+        ADD_COMMENT("POST /api/project/{id}/tasks/{taskId}/comments", 5);
+
+        final String endpoint;
+        final int weight;
+
+        Operation(String endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+    }
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        PostgreSQLContainer<?> postgres = null;
+        ConfigurableApplicationContext application = null;
+        try {
+            String baseUrl = settings.baseUrl();
+            if (baseUrl == null) {
+                postgres = new PostgreSQLContainer<>(DockerImageName.parse(settings.postgresImage()));
+                postgres.start();
+                application = startApplication(postgres);
+                baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+            }
+
+            HttpClient client = ApiSession.newClient();
+            if (postgres != null) {
+                // El seed de ejemplo crea la cuenta admin con la que se llama al generador
+                HttpResponse<byte[]> example = new ApiSession(client, baseUrl).post("/api/dev/seed", Map.of());
+                if (example.statusCode() != 200) {
+                    throw new IllegalStateException("Example seed failed: HTTP " + example.statusCode());
+                }
+            }
+            // Con una base de datos propia se usa la carga con COPY, que además la vacía antes
+            JsonNode summary = seed(client, baseUrl, settings, postgres != null ? "/api/dev/seed/bulk" : "/api/dev/seed/synthetic");
+            System.out.println("Seeded: " + summary);
+
+            List<VirtualUser> users = login(client, baseUrl, settings, summary);
+            LoadTestReport report = run(users, settings);
+            report.print();
+            report.write(Path.of(settings.report()));
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(PostgreSQLContainer<?> postgres) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("jwt.secret-key", UUID.randomUUID() + "-" + UUID.randomUUID() + "-load-test-secret");
+        // El token no debe caducar durante la prueba
+        properties.put("jwt.access-expiration", "86400000");
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "-1");
+        // Todos los usuarios virtuales comparten pocas cuentas: se mide el servidor, no el limitador
+        properties.put("app.rate-limit.enabled", "false");
+        // Como argumentos de línea de comandos para que tengan prioridad sobre application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(TestProject01Application.class)
+                .profiles("dev")
+                .run(args);
+    }
+
+    private static JsonNode seed(HttpClient client, String baseUrl, Settings settings, String path) throws Exception {
+        ApiSession session = new ApiSession(client, baseUrl);
+        session.login(settings.username(), settings.password());
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("users", settings.users());
+        spec.put("projects", settings.projects());
+        spec.put("tasks", settings.tasks());
+        spec.put("comments", settings.comments());
+        spec.put("seed", settings.seed());
+        HttpResponse<byte[]> response = session.post(path, spec);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seed failed: HTTP " + response.statusCode() + " " + new String(response.body()));
+        }
+        return ApiSession.data(response);
+    }
+
+    /**
+     * Inicia sesión con los primeros usuarios generados (los de menor rango pertenecen a más proyectos)
+     * y guarda sus proyectos y algunas tareas para usarlos como destino de las peticiones.
+     */
+    private static List<VirtualUser> login(HttpClient client, String baseUrl, Settings settings, JsonNode summary) throws Exception {
+        String prefix = summary.path("usernamePrefix").asText();
+        String password = summary.path("password").asText();
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; users.size() < settings.concurrency() && i < settings.users(); i++) {
+            ApiSession session = new ApiSession(client, baseUrl);
+            session.login(prefix + i, password);
+            List<String> projects = new ArrayList<>();
+            ApiSession.data(session.get("/api/project")).forEach(project -> projects.add(project.path("id").asText()));
+            if (projects.isEmpty()) {
+                continue;
+            }
+            Map<String, List<String>> tasks = new HashMap<>();
+            for (String projectId : projects.subList(0, Math.min(5, projects.size()))) {
+                List<String> taskIds = new ArrayList<>();
+                ApiSession.data(session.get("/api/project/" + projectId + "/tasks"))
+                        .forEach(task -> taskIds.add(task.path("id").asText()));
+                if (!taskIds.isEmpty()) {
+                    tasks.put(projectId, taskIds.subList(0, Math.min(50, taskIds.size())));
+                }
+            }
+            users.add(new VirtualUser(session, projects, tasks, new SplittableRandom(settings.seed() + i)));
+        }
+        if (users.isEmpty()) {
+            throw new IllegalStateException("No generated user belongs to a project");
+        }
+        return users;
+    }
+
+    private static LoadTestReport run(List<VirtualUser> users, Settings settings) throws Exception {
+        long warmupEnd = System.nanoTime() + settings.warmupSeconds() * 1_000_000_000L;
+        long end = warmupEnd + settings.durationSeconds() * 1_000_000_000L;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<LatencyRecorder>> futures = new ArrayList<>();
+            for (VirtualUser user : users) {
+                futures.add(executor.submit(() -> user.runUntil(warmupEnd, end)));
+            }
+            List<LatencyRecorder> recorders = new ArrayList<>();
+            for (Future<LatencyRecorder> future : futures) {
+                recorders.add(future.get());
+            }
+            return LoadTestReport.of(LatencyRecorder.merge(recorders), settings.durationSeconds(), users.size());
+        }
+    }
+
+    static final class VirtualUser {
+        private static final int TOTAL_WEIGHT;
+
+        static {
+            int total = 0;
+            for (Operation operation : Operation.values()) {
+                total += operation.weight;
+            }
+            TOTAL_WEIGHT = total;
+        }
+
+        private final ApiSession session;
+        private final List<String> projects;
+        private final Map<String, List<String>> tasks;
+        private final List<String> projectsWithTasks;
+        private final SplittableRandom random;
+        private final LatencyRecorder recorder = new LatencyRecorder();
+
+        VirtualUser(ApiSession session, List<String> projects, Map<String, List<String>> tasks, SplittableRandom random) {
+            this.session = session;
+            this.projects = projects;
+            this.tasks = tasks;
+            this.projectsWithTasks = new ArrayList<>(tasks.keySet());
+            this.random = random;
+        }
+
+        LatencyRecorder runUntil(long warmupEnd, long end) {
+            boolean warm = false;
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                // Lo medido durante el calentamiento se descarta
+                if (!warm && now >= warmupEnd) {
+                    recorder.clear();
+                    warm = true;
+                }
+                Operation operation = next();
+                long started = System.nanoTime();
+                boolean error;
+                try {
+                    error = execute(operation).statusCode() >= 400;
+                } catch (Exception ex) {
+                    error = true;
+                }
+                recorder.record(operation.endpoint, System.nanoTime() - started, error);
+            }
+            return recorder;
+        }
+
+        private Operation next() {
+            int pick = random.nextInt(TOTAL_WEIGHT);
+            for (Operation operation : Operation.values()) {
+                pick -= operation.weight;
+                if (pick < 0) {
+                    if (projectsWithTasks.isEmpty() && (operation == Operation.LIST_COMMENTS || operation == Operation.ADD_COMMENT)) {
+                        return Operation.LIST_TASKS;
+                    }
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        private HttpResponse<byte[]> execute(Operation operation) throws Exception {
+            String project = projects.get(random.nextInt(projects.size()));
+            return switch (operation) {
+                case LIST_PROJECTS -> session.get("/api/project");
+                case LIST_TASKS -> session.get("/api/project/" + project + "/tasks");
+                case LIST_MEMBERS -> session.get("/api/project/" + project + "/members");
+                case PROJECT_STATS -> session.get("/api/project/" + project + "/stats");
+                case MY_WORK -> session.get("/api/me/work");
+                case LIST_COMMENTS -> session.get(commentsPath());
+                case ADD_COMMENT -> session.post(commentsPath(), Map.of("content", "Load test comment " + random.nextInt()));
+            };
+        }
+
+        private String commentsPath() {
+            String project = projectsWithTasks.get(random.nextInt(projectsWithTasks.size()));
+            List<String> taskIds = tasks.get(project);
+            return "/api/project/" + project + "/tasks/" + taskIds.get(random.nextInt(taskIds.size())) + "/comments";
+        }
+    }
+}
@@ -1,8 +1,21 @@
 package com.example.demo;
 
+import com.example.demo.security.BoundedPasswordEncoder;
 import com.example.demo.security.CustomAuthenticationEntryPoint;
 import com.example.demo.security.CustomAuthenticationProvider;
+import com.example.demo.security.IdempotencyFilter;
 import com.example.demo.security.JwtAuthFilter;
+import com.example.demo.security.PublicPaths;
+import com.example.demo.security.RateLimitFilter;
+import com.example.demo.security.RateLimitProperties;
+import com.example.demo.security.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -12,8 +25,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -25,11 +36,16 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final IdempotencyFilter idempotencyFilter;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, RateLimitFilter rateLimitFilter, IdempotencyFilter idempotencyFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
     @Bean
@@ -38,25 +54,21 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(
-                                "/swagger-ui/**",
-                                "/v3/api-docs/**",
-                                "/swagger-resources/**",
-                                "/webjars/**",
-                                "/favicon.ico",
-                                "/api/auth/login",
-                                "/api/auth/register",
-                                "/api/auth/refresh",
-                                "/api/dev/seed",
-                                "/error"
-                        ).permitAll()
+                        // El despacho ASYNC que cierra las respuestas en streaming ya se autorizó en la petición original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // JwtAuthFilter tampoco procesa el token en estas rutas
+                        .requestMatchers(PublicPaths.PATTERNS).permitAll()
                         .requestMatchers("/api/auth/logout").authenticated()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 ).exceptionHandling(ex -> ex.authenticationEntryPoint(customEntryPoint))
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Después del JWT para poder limitar por usuario
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
+                // Las respuestas guardadas son por usuario; los reintentos ya han pasado el límite
+                .addFilterAfter(idempotencyFilter, RateLimitFilter.class);
 
         return http.build();
     }
@@ -68,6 +80,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("https://project-manager-front-k8j6.onrender.com"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag", "Retry-After", "Idempotent-Replayed"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -75,9 +88,28 @@ public class SecurityConfig {
         return source;
     }
 
+    // BCrypt en un pool acotado; si no se indica, un hilo por núcleo
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.bcrypt.strength:10}") int strength,
+            @Value("${app.security.bcrypt.threads:0}") int threads,
+            @Value("${app.security.bcrypt.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.bcrypt.retry-after-seconds:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(strength, poolSize, queueCapacity, retryAfterSeconds);
+        new ExecutorServiceMetrics(encoder.executor(), "password-hashing", Tags.empty()).bindTo(meterRegistry);
+        FunctionCounter.builder("app.security.bcrypt.rejected", encoder, BoundedPasswordEncoder::rejectedCount)
+                .description("Password hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+        return encoder;
+    }
+
+    // Estático: RateLimitFilter, que se inyecta en esta clase, depende de él
+    @Bean
+    public static RateLimiter rateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties);
     }
 
     @Bean
@@ -0,0 +1,172 @@
+package com.example.demo;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ajustes del modo de ejecución con hilos virtuales ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Spring Boot ya ejecuta las peticiones de Tomcat y las tareas {@code @Async}/{@code @Scheduled}
+ * en hilos virtuales. Como puede haber miles de peticiones bloqueadas a la vez, el acceso al pool
+ * de Hikari se limita con un semáforo del mismo tamaño que el pool: los hilos sobrantes esperan
+ * aparcados en el semáforo en lugar de competir dentro del pool. La espera total sigue siendo el
+ * {@code connection-timeout} configurado: casi todo se espera en el semáforo y a Hikari, que con el
+ * permiso ya tiene una conexión libre, solo le queda un margen corto.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    // Mínimo que admite Hikari para connectionTimeout
+    static final long MIN_POOL_TIMEOUT_MS = 250;
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${app.datasource.max-concurrent-acquisitions:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long timeoutMillis,
+            @Value("${app.datasource.pool-timeout-ms:250}") long poolTimeoutMillis
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    long poolTimeout = Math.max(MIN_POOL_TIMEOUT_MS, Math.min(timeoutMillis, poolTimeoutMillis));
+                    hikari(dataSource).ifPresent(hikari -> hikari.setConnectionTimeout(poolTimeout));
+                    return new ConnectionLimitingDataSource(dataSource, permits, Math.max(0, timeoutMillis - poolTimeout));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static Optional<HikariDataSource> hikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? Optional.of(dataSource.unwrap(HikariDataSource.class))
+                    : Optional.empty();
+        } catch (SQLException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Los hilos que esperan en el semáforo no aparecen en {@code hikaricp.connections.pending},
+     * así que se exponen aparte para poder dimensionar el pool.
+     */
+    @Bean
+    public MeterBinder connectionLimiterMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ConnectionLimitingDataSource.class::isInstance)
+                .map(ConnectionLimitingDataSource.class::cast)
+                .forEach(limiter -> {
+                    Gauge.builder("app.datasource.acquisitions.pending", limiter, ConnectionLimitingDataSource::waiting)
+                            .description("Threads waiting for a connection permit")
+                            .register(registry);
+                    Gauge.builder("app.datasource.acquisitions.available", limiter, ConnectionLimitingDataSource::available)
+                            .description("Connection permits not in use")
+                            .register(registry);
+                });
+    }
+
+    /**
+     * DataSource que solo deja tener {@code permits} conexiones prestadas a la vez.
+     * El permiso se devuelve al cerrar la conexión; {@code timeoutMillis} es solo la espera del permiso.
+     */
+    static class ConnectionLimitingDataSource extends DelegatingDataSource {
+        private static final Logger logger = LoggerFactory.getLogger(ConnectionLimitingDataSource.class);
+        private final Semaphore permits;
+        private final long timeoutMillis;
+
+        ConnectionLimitingDataSource(DataSource target, int permits, long timeoutMillis) {
+            super(target);
+            this.permits = new Semaphore(permits, true);
+            this.timeoutMillis = timeoutMillis;
+            logger.info("Limiting concurrent connection acquisition to {} permits", permits);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        int waiting() {
+            return permits.getQueueLength();
+        }
+
+        int available() {
+            return permits.availablePermits();
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("Timed out waiting for a database connection permit");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a database connection permit", ex);
+            }
+        }
+
+        private Connection releasingOnClose(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException ex) {
+                                throw ex.getTargetException();
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+    }
+}
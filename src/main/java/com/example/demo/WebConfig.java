@@ -1,6 +1,8 @@
 package com.example.demo;
 
 import com.example.demo.controller.resolvers.TokenResolver;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
@@ -8,6 +10,10 @@ import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,9 +22,11 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     private final TokenResolver tokenResolver;
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
 
-    public WebConfig(TokenResolver tokenResolver) {
+    public WebConfig(TokenResolver tokenResolver, Jackson2ObjectMapperBuilder objectMapperBuilder) {
         this.tokenResolver = tokenResolver;
+        this.objectMapperBuilder = objectMapperBuilder;
     }
 
     @Override
@@ -26,6 +34,19 @@ public class WebConfig implements WebMvcConfigurer {
         resolvers.add(tokenResolver);
     }
 
+    /**
+     * Smile ({@code application/x-jackson-smile}) y CBOR ({@code application/cbor}) para los clientes que
+     * los pidan en {@code Accept}. Se construyen con la configuración de Jackson de la aplicación para que
+     * los DTOs se serialicen igual que en JSON; JSON sigue siendo el formato por defecto.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build()));
+    }
+
     private SecurityScheme cookieAccessScheme() {
         return new SecurityScheme()
                 .type(SecurityScheme.Type.APIKEY)
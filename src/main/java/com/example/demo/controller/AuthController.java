@@ -9,11 +9,9 @@ import com.example.demo.controller.responses.Response;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.service.CustomUserDetailsService;
 import com.example.demo.service.TokenBlacklistService;
-import com.example.demo.model.RefreshToken;
 import com.example.demo.model.User;
 import com.example.demo.security.JwtTokenUtil;
 import com.example.demo.service.RefreshTokenService;
-import com.example.demo.controller.exception.TokenRefreshException;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -163,6 +161,7 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<Response<String>> login(
             @RequestBody @Valid LoginDto request,
+            @Parameter(hidden = true) @Tokens TokensObj tokens,
             HttpServletResponse response
     ) {
         logger.debug("Login attempt by user: {}", request.username());
@@ -176,14 +175,16 @@ public class AuthController {
 
         User userDetails = (User) authentication.getPrincipal();
         String accessToken = jwtTokenUtil.generateToken(userDetails);
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails);
+        // Reuse this device's refresh token family when it already has one
+        RefreshTokenService.IssuedRefreshToken refreshToken = refreshTokenService.createRefreshToken(
+                userDetails, tokens != null ? tokens.getRefresh() : null);
 
         // Ensure token isn't blacklisted
         if (blacklistService.isTokenBlackListed(accessToken)) {
             blacklistService.unBlackListToken(accessToken);
         }
 
-        addAuthCookies(response, accessToken, refreshToken.getToken(), false);
+        addAuthCookies(response, accessToken, refreshToken.token(), false);
 
         Response<String> apiResponse =
                 new Response<>("SUCCESS", "Login successful", null, null);
@@ -192,7 +193,7 @@ public class AuthController {
     }
 
     /**
-     * Logs out the current user by deleting refresh token and blacklisting access token.
+     * Logs out the current user by revoking the refresh token family and blacklisting access token.
      * Cookies are cleared from the client.
      *
      * @param tokens         Object containing current access and refresh tokens
@@ -202,7 +203,7 @@ public class AuthController {
      */
     @Operation(
             summary = "Logout a user",
-            description = "Logs out the current user by deleting refresh token and blacklisting access token.",
+            description = "Logs out the current user by revoking the refresh token family and blacklisting access token.",
             responses = {
                     @ApiResponse(
                             responseCode = "204",
@@ -220,10 +221,8 @@ public class AuthController {
             HttpServletResponse response,
             Authentication authentication
     ) {
-        // Delete refresh token from DB if exists
-        refreshTokenService.findByToken(tokens.getRefresh())
-                .ifPresent(refreshToken ->
-                        refreshTokenService.deleteRefreshToken(refreshToken.getId()));
+        // Revoke this device's refresh token family with a single UPDATE
+        refreshTokenService.revoke(tokens.getRefresh());
 
         // Blacklist current access token until it expires
         String accessToken = tokens.getAccess();
@@ -274,18 +273,15 @@ public class AuthController {
             @Parameter(hidden = true) @Tokens TokensObj tokens,
             HttpServletResponse response
     ) {
-        logger.debug("Token refresh attempt with token: {}", tokens.getRefresh());
-
-        RefreshToken refreshToken = refreshTokenService.findByToken(tokens.getRefresh())
-                .orElseThrow(() -> new TokenRefreshException("Invalid refresh token"));
+        logger.debug("Token refresh attempt");
 
-        refreshToken = refreshTokenService.verifyExpiration(refreshToken);
-        User user = (User) userDetailsService.loadUserById(refreshToken.getUser().getId());
+        // A single UPDATE swaps the token in place; an old token of the family revokes the whole family
+        RefreshTokenService.IssuedRefreshToken newRefreshToken = refreshTokenService.rotate(tokens.getRefresh());
+        User user = (User) userDetailsService.loadUserById(newRefreshToken.userId());
 
         String newAccessToken = jwtTokenUtil.generateToken(user);
-        RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user);
 
-        addAuthCookies(response, newAccessToken, newRefreshToken.getToken(), false);
+        addAuthCookies(response, newAccessToken, newRefreshToken.token(), false);
         logger.info("Token refreshed successfully for user '{}'", user.getUsername());
 
         return ResponseEntity.ok(new Response<>("SUCCESS", "Token refreshed successfully", null, null));
@@ -335,7 +331,7 @@ public class AuthController {
                 .httpOnly(true)
                 .secure(true)
                 .sameSite("None")
-                .path("/api/auth/refresh")
+                .path("/api/auth")
                 .maxAge(revoke ? 0 : (refreshTokenExpiration / 1000))
                 .build();
         response.addHeader(HttpHeaders.SET_COOKIE, accessCookie.toString());
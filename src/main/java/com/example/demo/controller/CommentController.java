@@ -3,7 +3,9 @@ package com.example.demo.controller;
 import com.example.demo.controller.anotations.projects.RequireProjectRole;
 import com.example.demo.controller.dto.CommentResponseDto;
 import com.example.demo.controller.dto.CreateCommentDto;
+import com.example.demo.controller.preconditions.ETags;
 import com.example.demo.controller.responses.Response;
+import com.example.demo.controller.responses.ResponseStreamer;
 import com.example.demo.mapper.CommentMapper;
 import com.example.demo.model.Comment;
 import com.example.demo.model.ProjectRole;
@@ -17,14 +19,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -39,23 +46,27 @@ public class CommentController {
     private final CommentService commentService;
     private final TaskService taskService;
     private final CommentMapper commentMapper;
+    private final ResponseStreamer responseStreamer;
 
     public CommentController(
             CommentService commentService,
             TaskService taskService,
-            CommentMapper commentMapper
+            CommentMapper commentMapper,
+            ResponseStreamer responseStreamer
     ) {
         this.commentService = commentService;
         this.taskService = taskService;
         this.commentMapper = commentMapper;
+        this.responseStreamer = responseStreamer;
     }
 
     /**
      * Retrieves all comments associated with a given task inside a project.
+     * The ETag is an aggregate version of the comment list, checked with a single query.
      *
      * @param projectId the UUID of the project
      * @param taskId    the UUID of the task
-     * @return ResponseEntity containing a list of CommentResponseDto with HTTP 200 OK status
+     * @return ResponseEntity containing a list of CommentResponseDto with HTTP 200 OK status, or 304 if the ETag matches
      */
     @Operation(
             summary = "Get all comments for a task",
@@ -69,6 +80,10 @@ public class CommentController {
                                     schema = @Schema(implementation = Response.class)
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Comments not modified"
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Task not found"
@@ -79,8 +94,13 @@ public class CommentController {
     @GetMapping
     public ResponseEntity<Response<List<CommentResponseDto>>> getComments(
             @PathVariable("projectId") UUID projectId,
-            @PathVariable("taskId") UUID taskId
+            @PathVariable("taskId") UUID taskId,
+            WebRequest request
     ) {
+        Optional<String> eTag = this.commentService.getCommentsVersionTag(taskId, projectId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
         Task task = this.taskService.getByIdAndProjectId(taskId, projectId);
         List<CommentResponseDto> comments = this.commentService
                 .getAllCommentsByTask(task)
@@ -93,15 +113,109 @@ public class CommentController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Retrieves the comments of a task with only the fields listed in {@code fields}
+     * (for example {@code fields=content,createdAt}). Only those columns are read from the database.
+     *
+     * @param projectId the UUID of the project
+     * @param taskId    the UUID of the task
+     * @param fields    comma separated field names; the id is always included
+     * @return ResponseEntity containing the selected fields of each comment with HTTP 200 OK, or 304 if the ETag matches
+     */
+    @Operation(
+            summary = "Get selected fields of all comments for a task",
+            description = "Sparse fieldset: id, content, createdAt, updatedAt, user.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "List of comments retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Comments not modified"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unknown field"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Task not found"
+                    )
+            }
+    )
+    @RequireProjectRole(ProjectRole.USER)
+    @GetMapping(params = "fields")
+    public ResponseEntity<Response<List<Map<String, Object>>>> getCommentFields(
+            @PathVariable("projectId") UUID projectId,
+            @PathVariable("taskId") UUID taskId,
+            @RequestParam("fields") String fields,
+            WebRequest request
+    ) {
+        // Sin huella la tarea no existe en el proyecto
+        String eTag = this.commentService.getCommentsVersionTag(taskId, projectId).orElseThrow()
+                + "-" + Integer.toHexString(fields.hashCode());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<Map<String, Object>> comments = this.commentService.getCommentFieldsByTask(taskId, projectId, fields);
+        return ResponseEntity.ok(new Response<>("SUCCESS", "Comments found", comments, null));
+    }
+
+    /**
+     * Streams the comments of a task in chronological order. The body has the same shape as
+     * {@link #getComments}, but comments are read through a database cursor and written one by one.
+     *
+     * @param projectId the UUID of the project
+     * @param taskId    the UUID of the task
+     * @return ResponseEntity whose body is written asynchronously, HTTP 200 OK
+     */
+    @Operation(
+            summary = "Stream all comments of a task",
+            description = "Same payload as GET .../comments, written incrementally for very long threads.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Comments streamed",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Task not found"
+                    )
+            }
+    )
+    @RequireProjectRole(ProjectRole.USER)
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamComments(
+            @PathVariable("projectId") UUID projectId,
+            @PathVariable("taskId") UUID taskId
+    ) {
+        // Se comprueba antes de enviar nada; una vez empezado el cuerpo ya no se puede responder 404
+        this.taskService.getByIdAndProjectId(taskId, projectId);
+        return this.responseStreamer.ok("Comments found", sink ->
+                this.commentService.forEachCommentOfTask(taskId, projectId,
+                        comment -> sink.accept(this.commentMapper.toResponse(comment))));
+    }
+
     /**
      * Updates an existing comment belonging to a specific task.
+     * If an If-Match header is sent it must match the current version of the comment.
      *
      * @param dto       data transfer object containing the updated comment content
      * @param projectId UUID of the project
      * @param taskId    UUID of the task
      * @param commentId UUID of the comment to update
+     * @param ifMatch   optional ETag obtained from a previous read
      * @return ResponseEntity containing the updated comment and HTTP 200 OK status
-     * @throws ResponseStatusException if the comment does not belong to the specified task
+     * @throws ResponseStatusException if the comment does not belong to the specified task, or 412 if it changed meanwhile
      */
     @Operation(
             summary = "Update an existing comment",
@@ -118,6 +232,10 @@ public class CommentController {
                     @ApiResponse(
                             responseCode = "400",
                             description = "Comment does not belong to task or invalid request"
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "Comment was modified by another request"
                     )
             }
     )
@@ -126,7 +244,8 @@ public class CommentController {
             @RequestBody @Valid CreateCommentDto dto,
             @PathVariable("projectId") UUID projectId,
             @PathVariable("taskId") UUID taskId,
-            @PathVariable("id") UUID commentId
+            @PathVariable("id") UUID commentId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         Task task = this.taskService.getByIdAndProjectId(taskId, projectId);
         Comment comment = this.commentService.findCommentById(commentId);
@@ -135,6 +254,7 @@ public class CommentController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Comment does not belong to task with given id");
         }
+        ETags.checkIfMatch(ifMatch, ETags.of(comment));
 
         this.commentMapper.updateFromDto(dto, comment);
         comment.setUpdatedAt(Instant.now());
@@ -204,7 +324,7 @@ public class CommentController {
      * @param commentId UUID of the comment to delete
      * @param auth      Authentication object representing the current user
      * @return ResponseEntity with HTTP 204 NO_CONTENT if deletion was successful
-     * @throws ResponseStatusException if the comment does not belong to the specified task
+     * @throws java.util.NoSuchElementException if the comment does not exist in the specified task
      */
     @Operation(
             summary = "Delete a comment",
@@ -215,8 +335,8 @@ public class CommentController {
                             description = "Comment deleted successfully"
                     ),
                     @ApiResponse(
-                            responseCode = "400",
-                            description = "Comment does not belong to task"
+                            responseCode = "404",
+                            description = "Comment not found in the given task"
                     )
             }
     )
@@ -227,15 +347,7 @@ public class CommentController {
             @PathVariable("id") UUID commentId,
             Authentication auth
     ) {
-        Task task = this.taskService.getByIdAndProjectId(taskId, projectId);
-        Comment comment = this.commentService.findCommentById(commentId);
-
-        if (!comment.getTask().getId().equals(task.getId())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "Comment does not belong to task with given id");
-        }
-
-        this.commentService.deleteComment(comment);
+        this.commentService.deleteComment(commentId, taskId, projectId);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,178 @@
+package com.example.demo.controller;
+
+import com.example.demo.controller.dto.ProjectResponseDto;
+import com.example.demo.controller.dto.TaskResponseDto;
+import com.example.demo.controller.responses.Response;
+import com.example.demo.controller.responses.ResponseStreamer;
+import com.example.demo.mapper.ProjectMapper;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.model.User;
+import com.example.demo.model.UserHasProjects;
+import com.example.demo.service.InvitationService;
+import com.example.demo.service.ProjectService;
+import com.example.demo.service.TaskService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST controller that aggregates everything the home screen needs in a single request:
+ * the user's projects with their role, the tasks assigned to them grouped by project,
+ * and the number of pending invitations.
+ */
+@Tag(name = "My work", description = "Aggregated view of the authenticated user's work")
+@RestController
+@RequestMapping("/api/me")
+public class MyWorkController {
+
+    private final ProjectService projectService;
+    private final TaskService taskService;
+    private final InvitationService invitationService;
+    private final ProjectMapper projectMapper;
+    private final TaskMapper taskMapper;
+    private final ResponseStreamer responseStreamer;
+
+    public MyWorkController(
+            ProjectService projectService,
+            TaskService taskService,
+            InvitationService invitationService,
+            ProjectMapper projectMapper,
+            TaskMapper taskMapper,
+            ResponseStreamer responseStreamer
+    ) {
+        this.projectService = projectService;
+        this.taskService = taskService;
+        this.invitationService = invitationService;
+        this.projectMapper = projectMapper;
+        this.taskMapper = taskMapper;
+        this.responseStreamer = responseStreamer;
+    }
+
+    /**
+     * Builds the "my work" view with three queries regardless of the number of projects:
+     * memberships with their projects, assigned tasks (read through a cursor) and the invitation count.
+     * The assigned tasks come ordered by project and each project group is written as the cursor
+     * reaches it, so only the list of projects is held in memory. The JSON is the same as a
+     * {@code Response<MyWorkDto>}.
+     *
+     * @param currentUser authenticated user
+     * @return ResponseEntity whose body is written asynchronously, HTTP 200 OK
+     */
+    @Operation(
+            summary = "Get the authenticated user's work",
+            description = "Returns the user's projects with their role, the tasks assigned to the user grouped by project and the number of pending invitations.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Work summary retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized")
+            }
+    )
+    @GetMapping("/work")
+    public ResponseEntity<StreamingResponseBody> getMyWork(@AuthenticationPrincipal User currentUser) {
+        UUID userId = currentUser.getId();
+        // Mismo orden que el cursor: PostgreSQL compara los uuid byte a byte, igual que su forma hexadecimal
+        List<ProjectResponseDto> projects = this.projectService.getAllRelationsByUser(userId).stream()
+                .sorted(Comparator.comparing((UserHasProjects relation) -> relation.getProject().getId().toString()))
+                .map(this.projectMapper::toResponse)
+                .toList();
+        long pendingInvitations = this.invitationService.countPendingInvitations(currentUser);
+
+        return this.responseStreamer.okData("My work", generator -> {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("projects");
+            ProjectGroups groups = new ProjectGroups(generator, projects);
+            this.taskService.forEachTaskAssignedTo(userId, task -> groups.add(task.getProject().getId(), this.taskMapper.toResponse(task)));
+            groups.finish();
+            generator.writeEndArray();
+            generator.writeNumberField("pendingInvitations", pendingInvitations);
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * Writes one {@code MyWorkProjectDto} per project while the tasks arrive ordered by project.
+     * Projects without tasks are written empty; tasks of projects the user is no longer a member of
+     * are skipped.
+     */
+    private final class ProjectGroups {
+        private final JsonGenerator generator;
+        private final List<ProjectResponseDto> projects;
+        private int next;
+        private String openKey;
+
+        ProjectGroups(JsonGenerator generator, List<ProjectResponseDto> projects) {
+            this.generator = generator;
+            this.projects = projects;
+        }
+
+        void add(UUID projectId, TaskResponseDto task) {
+            try {
+                String key = projectId.toString();
+                if (!key.equals(openKey)) {
+                    closeOpenProject();
+                    while (next < projects.size() && key(next).compareTo(key) < 0) {
+                        openProject(next++);
+                        closeOpenProject();
+                    }
+                    if (next < projects.size() && key(next).equals(key)) {
+                        openProject(next++);
+                    }
+                }
+                if (key.equals(openKey)) {
+                    responseStreamer.writeValue(generator, task);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            closeOpenProject();
+            while (next < projects.size()) {
+                openProject(next++);
+                closeOpenProject();
+            }
+        }
+
+        private String key(int index) {
+            return projects.get(index).id().toString();
+        }
+
+        private void openProject(int index) throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName("project");
+            responseStreamer.writeValue(generator, projects.get(index));
+            generator.writeArrayFieldStart("assignedTasks");
+            openKey = key(index);
+        }
+
+        private void closeOpenProject() throws IOException {
+            if (openKey != null) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                openKey = null;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.controller.anotations.projects.RequireProjectRole;
 import com.example.demo.controller.dto.*;
+import com.example.demo.controller.preconditions.ETags;
 import com.example.demo.controller.responses.Response;
 import com.example.demo.mapper.ProjectMapper;
 import com.example.demo.mapper.UserMapper;
@@ -9,6 +10,9 @@ import com.example.demo.model.*;
 import com.example.demo.service.CustomUserDetailsService;
 import com.example.demo.service.InvitationService;
 import com.example.demo.service.ProjectService;
+import com.example.demo.service.ProjectResponseCache;
+import com.example.demo.service.ProjectStatsService;
+import com.example.demo.service.ProjectTransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -19,16 +23,23 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -49,25 +60,35 @@ public class ProjectsController {
     private final CustomUserDetailsService usersService;
     private final InvitationService invitationService;
     private final UserMapper userMapper;
+    private final ProjectStatsService statsService;
+    private final ProjectTransferService transferService;
+    private final ProjectResponseCache responseCache;
     private final Logger logger = LoggerFactory.getLogger(ProjectsController.class);
 
     public ProjectsController(
             ProjectMapper projectMapper,
             ProjectService projectService,
             CustomUserDetailsService usersService,
-            InvitationService invitationService, UserMapper userMapper
+            InvitationService invitationService, UserMapper userMapper,
+            ProjectStatsService statsService,
+            ProjectTransferService transferService,
+            ProjectResponseCache responseCache
     ) {
         this.projectMapper = projectMapper;
         this.projectService = projectService;
         this.usersService = usersService;
         this.invitationService = invitationService;
         this.userMapper = userMapper;
+        this.statsService = statsService;
+        this.transferService = transferService;
+        this.responseCache = responseCache;
     }
 
     /**
      * Obtiene la lista de todos los miembros que pertenecen a un proyecto específico.
      * * Este endpoint requiere que el usuario esté autenticado y tenga al menos el rol 'USER'
-     * en el proyecto especificado por {@code projectId}.
+     * en el proyecto especificado por {@code projectId}. Las respuestas JSON se sirven desde
+     * {@link ProjectResponseCache} mientras no cambien los miembros del proyecto.
      *
      * @param projectId El identificador único (UUID) del proyecto del cual se desean obtener los miembros.
      * @return Una respuesta HTTP 200 (OK) que contiene una lista de DTOs de miembros del proyecto.
@@ -88,14 +109,113 @@ public class ProjectsController {
     })
     @RequireProjectRole(ProjectRole.USER)
     @GetMapping("/{id}/members")
-    public ResponseEntity<Response<List<ProjectMemberDto>>> getMembers(
-            @PathVariable("id") UUID projectId
+    public ResponseEntity<?> getMembers(
+            @PathVariable("id") UUID projectId,
+            WebRequest request
     ) {
-        this.projectService.getOneById(projectId);
+        if (this.responseCache.accepts(request)) {
+            return this.responseCache.serve(projectId, ProjectResponseCache.View.MEMBERS, request,
+                    null, () -> loadMembers(projectId));
+        }
+        return ResponseEntity.ok(loadMembers(projectId));
+    }
+
+    private Response<List<ProjectMemberDto>> loadMembers(UUID projectId) {
         List<ProjectMemberDto> members = this.projectService.getMembers(projectId).stream().map(this.userMapper::toResponse).toList();
-        Response<List<ProjectMemberDto>> response =
-                new Response<>("SUCCESS", "Project members retrieved", members, null);
-        return ResponseEntity.ok(response);
+        return new Response<>("SUCCESS", "Project members retrieved", members, null);
+    }
+
+    /**
+     * Returns the task counters of a project by status and priority.
+     * The counters are materialized, so the cost does not depend on the number of tasks.
+     *
+     * @param projectId UUID of the project
+     * @return ResponseEntity with the project stats and HTTP 200 OK
+     */
+    @Operation(
+            summary = "Get project dashboard stats",
+            description = "Returns the number of tasks of the project by status and priority, and the overdue tasks.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Project stats retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized")
+            }
+    )
+    @RequireProjectRole(ProjectRole.USER)
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<Response<ProjectStatsDto>> getStats(@PathVariable("id") UUID projectId) {
+        ProjectStatsDto stats = this.statsService.getStats(projectId)
+                .map(this.projectMapper::toResponse)
+                .orElseGet(() -> ProjectStatsDto.empty(projectId));
+        return ResponseEntity.ok(new Response<>("SUCCESS", "Project stats", stats, null));
+    }
+
+    /**
+     * Exports the project with its members, tasks and comments as newline-delimited JSON.
+     * The file is written while it is read from the database, so it can be arbitrarily large.
+     *
+     * @param projectId UUID of the project
+     * @return ResponseEntity whose NDJSON body is written asynchronously, HTTP 200 OK
+     */
+    @Operation(
+            summary = "Export a project",
+            description = "Streams the project, its members, tasks and comments as NDJSON, one record per line.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Project exported",
+                            content = @Content(mediaType = "application/x-ndjson")
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized")
+            }
+    )
+    @RequireProjectRole(ProjectRole.ADMIN)
+    @GetMapping(value = "/{id}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProject(@PathVariable("id") UUID projectId) {
+        StreamingResponseBody body = outputStream -> this.transferService.export(projectId, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"project-" + projectId + ".ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Imports a project from an NDJSON file produced by the export endpoint. A new project is created,
+     * with new ids, and the authenticated user becomes its ADMIN. Users are matched by username.
+     *
+     * @param body        NDJSON request body
+     * @param currentUser current authenticated user
+     * @return ResponseEntity with the import summary and HTTP 201 CREATED
+     */
+    @Operation(
+            summary = "Import a project",
+            description = "Creates a new project from an NDJSON export. Users are matched by username; unknown users are left empty.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "201",
+                            description = "Project imported",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Malformed or inconsistent file")
+            }
+    )
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Response<ProjectImportSummaryDto>> importProject(
+            InputStream body,
+            @AuthenticationPrincipal User currentUser
+    ) throws IOException {
+        ProjectImportSummaryDto summary = this.transferService.importProject(body, currentUser);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new Response<>("SUCCESS", "Project imported", summary, null));
     }
 
     @RequireProjectRole(ProjectRole.ADMIN)
@@ -104,19 +224,19 @@ public class ProjectsController {
             @PathVariable("id") UUID projectId,
             @PathVariable("memberId") UUID memberId
     ){
-        User member = (User) this.usersService.loadUserById(memberId);
-        Project project = this.projectService.getOneById(projectId);
-        this.projectService.kickUserFromProject(member, project);
+        this.projectService.kickUserFromProject(memberId, projectId);
         Response<String> response = new Response<>("SUCCESS", "Member kicked successfully", null, null);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
     }
 
     /**
      * Updates an existing project with new data.
+     * If an If-Match header is sent it must match the current ETag of the project.
      *
      * @param dto       DTO containing updated project fields
      * @param projectId UUID of the project to update
-     * @return ResponseEntity with updated project data and HTTP 200 OK
+     * @param ifMatch   optional ETag obtained from a previous read
+     * @return ResponseEntity with updated project data and HTTP 200 OK, or 412 if the project changed meanwhile
      */
     @Operation(
             summary = "Update an existing project",
@@ -131,16 +251,20 @@ public class ProjectsController {
                             )
                     ),
                     @ApiResponse(responseCode = "403", description = "Unauthorized"),
-                    @ApiResponse(responseCode = "404", description = "Project not found")
+                    @ApiResponse(responseCode = "404", description = "Project not found"),
+                    @ApiResponse(responseCode = "412", description = "Project was modified by another request")
             }
     )
     @RequireProjectRole(ProjectRole.ADMIN)
     @PatchMapping("/{id}")
     public ResponseEntity<Response<ProjectResponseDto>> updateProject(
             @RequestBody @Valid UpdateProjectDto dto,
-            @PathVariable("id") UUID projectId
+            @PathVariable("id") UUID projectId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         Project project = this.projectService.getOneById(projectId);
+        // El aspecto ya garantiza que el usuario es ADMIN del proyecto
+        ETags.checkIfMatch(ifMatch, ETags.of(project, ProjectRole.ADMIN));
         this.projectMapper.updateProjectFromDto(dto, project);
         Project updatedProject = this.projectService.saveProject(project);
         Response<ProjectResponseDto> response =
@@ -202,11 +326,44 @@ public class ProjectsController {
         return ResponseEntity.ok(new Response<>("SUCCESS", "All projects", projects, null));
     }
 
+    /**
+     * Retrieves the projects of the authenticated user with only the fields listed in {@code fields}
+     * (for example {@code fields=name,role}). Only those columns are read from the database.
+     *
+     * @param fields      comma separated field names; the id is always included
+     * @param currentUser current authenticated user
+     * @return ResponseEntity with the selected fields of each project and HTTP 200 OK
+     */
+    @Operation(
+            summary = "Get selected fields of all projects of the current user",
+            description = "Sparse fieldset: id, name, description, startDate, endDate, role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "List of projects retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Unknown field")
+            }
+    )
+    @GetMapping(params = "fields")
+    public ResponseEntity<Response<List<Map<String, Object>>>> getAllFields(
+            @RequestParam("fields") String fields,
+            @AuthenticationPrincipal User currentUser
+    ) {
+        List<Map<String, Object>> projects = this.projectService.getProjectFieldsByUser(currentUser.getId(), fields);
+        return ResponseEntity.ok(new Response<>("SUCCESS", "All projects", projects, null));
+    }
+
     /**
      * Retrieves a single project by its ID.
+     * Supports conditional requests: the ETag is derived from the project version and the caller's role.
      *
      * @param projectId UUID of the project
-     * @return ResponseEntity with project details and HTTP 200 OK
+     * @return ResponseEntity with project details and HTTP 200 OK, or 304 if the ETag matches
      */
     @Operation(
             summary = "Get a project by ID",
@@ -220,12 +377,16 @@ public class ProjectsController {
                                     schema = @Schema(implementation = Response.class)
                             )
                     ),
+                    @ApiResponse(responseCode = "304", description = "Project not modified"),
                     @ApiResponse(responseCode = "404", description = "Project not found")
             }
     )
     @GetMapping("/{id}")
-    public ResponseEntity<Response<ProjectResponseDto>> getOneById(@PathVariable("id") UUID projectId, @AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<Response<ProjectResponseDto>> getOneById(@PathVariable("id") UUID projectId, @AuthenticationPrincipal User currentUser, WebRequest request) {
         UserHasProjects relation = this.projectService.getRelation(new UserProjectId(currentUser.getId(), projectId));
+        if (request.checkNotModified(ETags.of(relation.getProject(), relation.getRole()))) {
+            return null;
+        }
         Response<ProjectResponseDto> response =
                 new Response<>("SUCCESS", "Project data found", this.projectMapper.toResponse(relation), null);
         return ResponseEntity.ok(response);
@@ -1,7 +1,11 @@
 package com.example.demo.controller;
 
+import com.example.demo.controller.dto.SyntheticSeedDto;
+import com.example.demo.controller.dto.SyntheticSeedSummaryDto;
+import com.example.demo.controller.responses.Response;
 import com.example.demo.model.*;
 import com.example.demo.service.*;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
@@ -23,18 +27,20 @@ public class SeedController {
     private final InvitationService invitationService;
     private final CommentService commentService;
     private final PasswordEncoder passwordEncoder;
+    private final SyntheticDataGenerator syntheticDataGenerator;
 
     @Value("${app.seed.enabled:true}")
     private boolean seedEnabled;
 
 
-    public SeedController(CustomUserDetailsService userService, ProjectService projectService, TaskService taskService, InvitationService invitationService, CommentService commentService, PasswordEncoder passwordEncoder) {
+    public SeedController(CustomUserDetailsService userService, ProjectService projectService, TaskService taskService, InvitationService invitationService, CommentService commentService, PasswordEncoder passwordEncoder, SyntheticDataGenerator syntheticDataGenerator) {
         this.userService = userService;
         this.projectService = projectService;
         this.taskService = taskService;
         this.invitationService = invitationService;
         this.commentService = commentService;
         this.passwordEncoder = passwordEncoder;
+        this.syntheticDataGenerator = syntheticDataGenerator;
     }
 
     @PostMapping
@@ -107,6 +113,26 @@ public class SeedController {
         return ResponseEntity.ok("Seed executed successfully!");
     }
 
+    // Large synthetic dataset for load tests; adds to the existing data instead of replacing it
+    @PostMapping("/synthetic")
+    public ResponseEntity<Response<SyntheticSeedSummaryDto>> seedSynthetic(@Valid @RequestBody SyntheticSeedDto spec) {
+        if (!seedEnabled) {
+            return ResponseEntity.status(403).body(new Response<>("ERROR", "Seed disabled", null, null));
+        }
+        SyntheticSeedSummaryDto summary = syntheticDataGenerator.generate(spec);
+        return ResponseEntity.ok(new Response<>("SUCCESS", "Synthetic data generated", summary, null));
+    }
+
+    // Bulk mode for staging/performance environments: truncates every table and loads the dataset with COPY
+    @PostMapping("/bulk")
+    public ResponseEntity<Response<SyntheticSeedSummaryDto>> seedBulk(@Valid @RequestBody SyntheticSeedDto spec) {
+        if (!seedEnabled) {
+            return ResponseEntity.status(403).body(new Response<>("ERROR", "Seed disabled", null, null));
+        }
+        SyntheticSeedSummaryDto summary = syntheticDataGenerator.replaceWithCopy(spec);
+        return ResponseEntity.ok(new Response<>("SUCCESS", "Database replaced with synthetic data", summary, null));
+    }
+
     private void createTasksForProject(Project project, User admin, User user, Random random) {
 
         int taskCount = 5 + random.nextInt(6); // from 5 to 10 tasks
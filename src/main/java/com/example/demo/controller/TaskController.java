@@ -2,13 +2,19 @@ package com.example.demo.controller;
 
 import com.example.demo.controller.anotations.projects.RequireProjectRole;
 import com.example.demo.controller.dto.CreateTaskDto;
+import com.example.demo.controller.dto.MoveTaskDto;
+import com.example.demo.controller.dto.TaskPositionDto;
 import com.example.demo.controller.dto.TaskResponseDto;
 import com.example.demo.controller.dto.UpdateTaskDto;
+import com.example.demo.controller.preconditions.ETags;
 import com.example.demo.controller.responses.Response;
+import com.example.demo.controller.responses.ResponseStreamer;
 import com.example.demo.mapper.TaskMapper;
 import com.example.demo.model.*;
 import com.example.demo.service.CustomUserDetailsService;
+import com.example.demo.service.ProjectResponseCache;
 import com.example.demo.service.ProjectService;
+import com.example.demo.service.TaskRankService;
 import com.example.demo.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,13 +24,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -42,17 +52,26 @@ public class TaskController {
     private final TaskService taskService;
     private final ProjectService projectService;
     private final CustomUserDetailsService userService;
+    private final ResponseStreamer responseStreamer;
+    private final ProjectResponseCache responseCache;
+    private final TaskRankService rankService;
 
     public TaskController(
             TaskMapper taskMapper,
             TaskService taskService,
             CustomUserDetailsService userService,
-            ProjectService projectService
+            ProjectService projectService,
+            ResponseStreamer responseStreamer,
+            ProjectResponseCache responseCache,
+            TaskRankService rankService
     ) {
         this.taskMapper = taskMapper;
         this.taskService = taskService;
         this.userService = userService;
         this.projectService = projectService;
+        this.responseStreamer = responseStreamer;
+        this.responseCache = responseCache;
+        this.rankService = rankService;
     }
 
     /**
@@ -60,10 +79,13 @@ public class TaskController {
      *
      * @param authentication Authentication object containing the current user
      * @return ResponseEntity containing a list of tasks and HTTP 200 OK
+     * @deprecated the project id is ignored; use {@code GET /api/tasks/assigned} or {@code GET /api/me/work}
      */
+    @Deprecated
     @Operation(
             summary = "Get all tasks assigned to the authenticated user",
-            description = "Retrieves all tasks assigned to the currently authenticated user.",
+            description = "Retrieves all tasks assigned to the currently authenticated user. Deprecated: use /api/tasks/assigned or /api/me/work.",
+            deprecated = true,
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -120,7 +142,8 @@ public class TaskController {
             @RequestBody @Valid CreateTaskDto dto,
             @PathVariable("projectId") UUID projectId
     ) {
-        Project project = this.projectService.getOneById(projectId);
+        // El aspecto ya comprobó que el usuario es ADMIN del proyecto, así que existe
+        Project project = this.projectService.getReference(projectId);
         Task task = taskMapper.toEntity(dto);
         task.setProject(project);
 
@@ -137,11 +160,13 @@ public class TaskController {
 
     /**
      * Updates an existing task within a project.
+     * If an If-Match header is sent it must match the current ETag of the task.
      *
      * @param taskId    UUID of the task to update
      * @param projectId UUID of the project containing the task
      * @param dto       DTO containing updated task fields
-     * @return ResponseEntity with updated task and HTTP 200 OK
+     * @param ifMatch   optional ETag obtained from a previous read
+     * @return ResponseEntity with updated task and HTTP 200 OK, or 412 if the task changed meanwhile
      */
     @Operation(
             summary = "Update an existing task",
@@ -156,7 +181,8 @@ public class TaskController {
                             )
                     ),
                     @ApiResponse(responseCode = "403", description = "Unauthorized"),
-                    @ApiResponse(responseCode = "404", description = "Task or project not found")
+                    @ApiResponse(responseCode = "404", description = "Task or project not found"),
+                    @ApiResponse(responseCode = "412", description = "Task was modified by another request")
             }
     )
     @RequireProjectRole(ProjectRole.ADMIN)
@@ -165,9 +191,11 @@ public class TaskController {
     public ResponseEntity<Response<TaskResponseDto>> updateTask(
             @PathVariable("projectId") UUID projectId,
             @PathVariable("taskId") UUID taskId,
-            @RequestBody UpdateTaskDto dto
+            @RequestBody UpdateTaskDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         Task task = this.projectService.findTaskById(taskId, projectId);
+        ETags.checkIfMatch(ifMatch, ETags.of(task));
         this.taskMapper.updateTaskFromDto(dto, task);
 
         if (dto.assignedUser() != null) {
@@ -183,6 +211,89 @@ public class TaskController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Moves a task on the project board: to another status column and/or to a position inside it,
+     * between {@code afterTaskId} and {@code beforeTaskId}. Only the moved task is updated.
+     *
+     * @param projectId UUID of the project containing the task
+     * @param taskId    UUID of the task to move
+     * @param dto       target column and neighbours; with no neighbours the task goes to the end of the column
+     * @return ResponseEntity with the new position of the task and HTTP 200 OK
+     */
+    @Operation(
+            summary = "Move a task on the project board",
+            description = "Changes the status column and the position of a task. Neighbours must belong to the target column.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Task moved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Neighbours are not in order"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "404", description = "Task or neighbour not found")
+            }
+    )
+    @RequireProjectRole(ProjectRole.ADMIN)
+    @PatchMapping("/{taskId}/position")
+    public ResponseEntity<Response<TaskPositionDto>> moveTask(
+            @PathVariable("projectId") UUID projectId,
+            @PathVariable("taskId") UUID taskId,
+            @RequestBody @Valid MoveTaskDto dto
+    ) {
+        String rank = this.rankService.move(projectId, taskId, dto.status(), dto.afterTaskId(), dto.beforeTaskId());
+        Response<TaskPositionDto> response =
+                new Response<>("SUCCESS", "Task moved", new TaskPositionDto(taskId, dto.status(), rank), null);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retrieves the tasks of a project in board order: grouped by status and sorted by rank inside
+     * each column. With {@code status} only that column is returned.
+     *
+     * @param projectId UUID of the project
+     * @param status    optional status column
+     * @return ResponseEntity containing the ordered tasks and HTTP 200 OK, or 304 if the ETag matches
+     */
+    @Operation(
+            summary = "Get the tasks of a project in board order",
+            description = "Tasks sorted by status and rank. Tasks without a rank yet are listed at the end of their column.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Board retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "304", description = "Board not modified"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized")
+            }
+    )
+    @RequireProjectRole(ProjectRole.USER)
+    @GetMapping("/board")
+    public ResponseEntity<Response<List<TaskResponseDto>>> getBoard(
+            @PathVariable("projectId") UUID projectId,
+            @RequestParam(value = "status", required = false) TaskStatus status,
+            WebRequest request
+    ) {
+        // Mover o rebalancear incrementa la versión de las tareas, así que la huella del listado también cambia
+        String eTag = this.projectService.getTasksVersionTag(projectId) + (status == null ? "" : "-" + status);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<TaskResponseDto> tasks = this.projectService
+                .getBoardTasks(projectId, status)
+                .stream()
+                .map(this.taskMapper::toResponse)
+                .toList();
+        return ResponseEntity.ok(new Response<>("SUCCESS", "Project board", tasks, null));
+    }
+
     /**
      * Deletes a task from the specified project.
      *
@@ -200,22 +311,22 @@ public class TaskController {
             }
     )
     @RequireProjectRole(ProjectRole.ADMIN)
-    @Transactional
     @DeleteMapping("/{taskId}")
     public ResponseEntity<Void> deleteTask(
             @PathVariable("projectId") UUID projectId,
             @PathVariable("taskId") UUID taskId
     ) {
-        Task task = this.projectService.findTaskById(taskId, projectId);
-        this.projectService.deleteTask(taskId);
+        this.projectService.deleteTask(taskId, projectId);
         return ResponseEntity.noContent().build();
     }
 
     /**
      * Retrieves all tasks belonging to a specific project.
+     * The ETag is an aggregate version of the list, so a matching If-None-Match costs a single query.
+     * JSON responses are served from {@link ProjectResponseCache} while the project's tasks do not change.
      *
      * @param projectId UUID of the project
-     * @return ResponseEntity containing the list of project tasks and HTTP 200 OK
+     * @return ResponseEntity containing the list of project tasks and HTTP 200 OK, or 304 if the ETag matches
      */
     @Operation(
             summary = "Get all tasks of a project",
@@ -229,25 +340,106 @@ public class TaskController {
                                     schema = @Schema(implementation = Response.class)
                             )
                     ),
+                    @ApiResponse(responseCode = "304", description = "Project tasks not modified"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized"),
                     @ApiResponse(responseCode = "404", description = "Project not found")
             }
     )
     @RequireProjectRole(ProjectRole.USER)
     @GetMapping
-    public ResponseEntity<Response<List<TaskResponseDto>>> getAllTasksByProject(
-            @PathVariable("projectId") UUID projectId
+    public ResponseEntity<?> getAllTasksByProject(
+            @PathVariable("projectId") UUID projectId,
+            WebRequest request
     ) {
-        Project project = this.projectService.getOneById(projectId);
+        if (this.responseCache.accepts(request)) {
+            return this.responseCache.serve(projectId, ProjectResponseCache.View.TASKS, request,
+                    () -> this.projectService.getTasksVersionTag(projectId),
+                    () -> loadTasksByProject(projectId));
+        }
+        if (request.checkNotModified(this.projectService.getTasksVersionTag(projectId))) {
+            return null;
+        }
+        return ResponseEntity.ok(loadTasksByProject(projectId));
+    }
+
+    private Response<List<TaskResponseDto>> loadTasksByProject(UUID projectId) {
         List<TaskResponseDto> tasks = this.projectService
-                .getAllTasksByProject(project)
+                .getAllTasksByProject(projectId)
                 .stream()
                 .map(this.taskMapper::toResponse)
                 .toList();
+        return new Response<>("SUCCESS", "Project tasks", tasks, null);
+    }
 
-        Response<List<TaskResponseDto>> response =
-                new Response<>("SUCCESS", "Project tasks", tasks, null);
-        return ResponseEntity.ok(response);
+    /**
+     * Retrieves the tasks of a project with only the fields listed in {@code fields}
+     * (for example {@code fields=name,status}). Only those columns are read from the database.
+     * The ETag includes the field list, so each selection is cached separately.
+     *
+     * @param projectId UUID of the project
+     * @param fields    comma separated field names; the id is always included
+     * @return ResponseEntity containing the selected fields of each task and HTTP 200 OK, or 304 if the ETag matches
+     */
+    @Operation(
+            summary = "Get selected fields of all tasks of a project",
+            description = "Sparse fieldset: id, name, description, status, priority, dueDate, project, rank, assignedUser.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Project tasks retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "304", description = "Project tasks not modified"),
+                    @ApiResponse(responseCode = "400", description = "Unknown field"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized")
+            }
+    )
+    @RequireProjectRole(ProjectRole.USER)
+    @GetMapping(params = "fields")
+    public ResponseEntity<Response<List<Map<String, Object>>>> getTaskFieldsByProject(
+            @PathVariable("projectId") UUID projectId,
+            @RequestParam("fields") String fields,
+            WebRequest request
+    ) {
+        String eTag = this.projectService.getTasksVersionTag(projectId) + "-" + Integer.toHexString(fields.hashCode());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<Map<String, Object>> tasks = this.taskService.getTaskFieldsByProject(projectId, fields);
+        return ResponseEntity.ok(new Response<>("SUCCESS", "Project tasks", tasks, null));
+    }
+
+    /**
+     * Streams all tasks of a project. The body has the same shape as {@link #getAllTasksByProject},
+     * but tasks are read through a database cursor and written one by one, so memory use does not
+     * depend on the number of tasks.
+     *
+     * @param projectId UUID of the project
+     * @return ResponseEntity whose body is written asynchronously, HTTP 200 OK
+     */
+    @Operation(
+            summary = "Stream all tasks of a project",
+            description = "Same payload as GET /api/project/{projectId}/tasks, written incrementally for very large projects.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Project tasks streamed",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Response.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized")
+            }
+    )
+    @RequireProjectRole(ProjectRole.USER)
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllTasksByProject(@PathVariable("projectId") UUID projectId) {
+        return this.responseStreamer.ok("Project tasks", sink ->
+                this.taskService.forEachTaskInProject(projectId, task -> sink.accept(this.taskMapper.toResponse(task))));
     }
 
     /**
@@ -268,6 +460,7 @@ public class TaskController {
                                     schema = @Schema(implementation = Response.class)
                             )
                     ),
+                    @ApiResponse(responseCode = "304", description = "Task not modified"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized"),
                     @ApiResponse(responseCode = "404", description = "Task not found")
             }
@@ -276,9 +469,13 @@ public class TaskController {
     @GetMapping("/{taskId}")
     public ResponseEntity<Response<TaskResponseDto>> getById(
             @PathVariable("projectId") UUID projectId,
-            @PathVariable("taskId") UUID id
+            @PathVariable("taskId") UUID id,
+            WebRequest request
     ) {
         Task task = this.taskService.findById(id);
+        if (request.checkNotModified(ETags.of(task))) {
+            return null;
+        }
         Response<TaskResponseDto> response = new Response<>("SUCCESS", "Task found", this.taskMapper.toResponse(task), null);
         return ResponseEntity.ok(response);
     }
@@ -1,9 +1,14 @@
 package com.example.demo.controller.advices;
 
+import com.example.demo.controller.exception.InvalidRequestException;
+import com.example.demo.controller.exception.TokenRefreshException;
+import com.example.demo.controller.exception.TooManyRequestsException;
 import com.example.demo.controller.responses.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -30,12 +35,27 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, ex.getStatusCode());
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Response<String>> handleTooManyRequests(TooManyRequestsException ex) {
+        Response<String> response = new Response<>("ERROR", ex.getMessage(), null, null);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(DuplicateKeyException.class)
     public ResponseEntity<Response<String>> handleDuplicateKey(DuplicateKeyException ex) {
         Response<String> response = new Response<>("ERROR", ex.getMessage(), null, null);
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    // Otra petición modificó la entidad entre la lectura y el UPDATE con control de versión
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Response<String>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        Response<String> response = new Response<>("ERROR", "Resource has been modified by another request", null, null);
+        return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+    }
+
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<Response<String>> handleUsernameNotFound(UsernameNotFoundException ex) {
         Response<String> response = new Response<>("ERROR", ex.getMessage(), null, null);
@@ -48,6 +68,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(TokenRefreshException.class)
+    public ResponseEntity<Response<String>> handleTokenRefresh(TokenRefreshException ex) {
+        Response<String> response = new Response<>("ERROR", ex.getMessage(), null, null);
+        return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Response<Map<String, String>>> handleValidationException(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -66,6 +92,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Response<String>> handleInvalidRequest(InvalidRequestException ex) {
+        Response<String> response = new Response<>("ERROR", ex.getMessage(), null, null);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<Response<String>> handleMissingRequestParameter(MissingServletRequestParameterException ex) {
         Response<String> response = new Response<>("ERROR", ex.getMessage(), null, null);
@@ -0,0 +1,37 @@
+package com.example.demo.controller.dto;
+
+import com.example.demo.model.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+@Schema(
+        name = "MoveTaskDto",
+        description = "DTO utilizado para mover una tarea dentro del tablero. Sin vecinos, la tarea va al final de la columna."
+)
+public record MoveTaskDto(
+
+        @Schema(
+                description = "Columna (estado) de destino.",
+                example = "IN_PROGRESS",
+                requiredMode = RequiredMode.REQUIRED
+        )
+        @NotNull
+        TaskStatus status,
+
+        @Schema(
+                description = "Tarea de la columna tras la que se coloca (opcional).",
+                example = "a7d2b1d0-5e3a-45f1-97c8-2e5f1c81d0c5",
+                requiredMode = RequiredMode.NOT_REQUIRED
+        )
+        UUID afterTaskId,
+
+        @Schema(
+                description = "Tarea de la columna delante de la que se coloca (opcional).",
+                example = "c8b6d2b2-3f8b-4b5e-bf67-1a5c9e2393a1",
+                requiredMode = RequiredMode.NOT_REQUIRED
+        )
+        UUID beforeTaskId
+) {}
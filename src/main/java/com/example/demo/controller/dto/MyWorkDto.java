@@ -0,0 +1,18 @@
+package com.example.demo.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(
+        name = "MyWorkDto",
+        description = "Resumen del trabajo del usuario: sus proyectos con las tareas asignadas y sus invitaciones pendientes."
+)
+public record MyWorkDto(
+
+        @Schema(description = "Proyectos de los que el usuario es miembro, con sus tareas asignadas.")
+        List<MyWorkProjectDto> projects,
+
+        @Schema(description = "Número de invitaciones pendientes de responder.", example = "2")
+        long pendingInvitations
+) {}
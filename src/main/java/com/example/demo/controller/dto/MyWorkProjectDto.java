@@ -0,0 +1,18 @@
+package com.example.demo.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(
+        name = "MyWorkProjectDto",
+        description = "Proyecto del usuario junto con las tareas que tiene asignadas en él."
+)
+public record MyWorkProjectDto(
+
+        @Schema(description = "Datos del proyecto y rol del usuario en él.")
+        ProjectResponseDto project,
+
+        @Schema(description = "Tareas del proyecto asignadas al usuario autenticado.")
+        List<TaskResponseDto> assignedTasks
+) {}
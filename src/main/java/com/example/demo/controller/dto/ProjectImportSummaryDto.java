@@ -0,0 +1,30 @@
+package com.example.demo.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(
+        name = "ProjectImportSummaryDto",
+        description = "Resultado de importar un proyecto desde un fichero NDJSON."
+)
+public record ProjectImportSummaryDto(
+
+        @Schema(
+                description = "Identificador del proyecto creado.",
+                example = "550e8400-e29b-41d4-a716-446655440000"
+        )
+        UUID projectId,
+
+        @Schema(description = "Miembros añadidos al proyecto.", example = "5")
+        long members,
+
+        @Schema(description = "Tareas importadas.", example = "1200")
+        long tasks,
+
+        @Schema(description = "Comentarios importados.", example = "35000")
+        long comments,
+
+        @Schema(description = "Nombres de usuario del fichero que no existen en este entorno; se importan sin usuario.", example = "2")
+        long unresolvedUsers
+) {}
@@ -0,0 +1,59 @@
+package com.example.demo.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(
+        name = "ProjectStatsDto",
+        description = "Resumen de las tareas de un proyecto por estado y prioridad."
+)
+public record ProjectStatsDto(
+
+        @Schema(
+                description = "Identificador del proyecto.",
+                example = "550e8400-e29b-41d4-a716-446655440000"
+        )
+        UUID projectId,
+
+        @Schema(description = "Número total de tareas del proyecto.", example = "42")
+        long total,
+
+        @Schema(description = "Tareas sin empezar.", example = "10")
+        long notStarted,
+
+        @Schema(description = "Tareas en progreso.", example = "12")
+        long inProgress,
+
+        @Schema(description = "Tareas terminadas.", example = "20")
+        long done,
+
+        @Schema(description = "Tareas con prioridad baja.", example = "8")
+        long lowPriority,
+
+        @Schema(description = "Tareas con prioridad media.", example = "15")
+        long mediumPriority,
+
+        @Schema(description = "Tareas con prioridad alta.", example = "14")
+        long highPriority,
+
+        @Schema(description = "Tareas con prioridad crítica.", example = "5")
+        long criticalPriority,
+
+        @Schema(
+                description = "Tareas no terminadas cuya fecha límite ya pasó, según la última reconciliación.",
+                example = "3"
+        )
+        long overdue,
+
+        @Schema(
+                description = "Momento de la última reconciliación de los contadores (en formato UTC).",
+                example = "2025-11-12T10:15:30Z"
+        )
+        Instant reconciledAt
+) {
+    public static ProjectStatsDto empty(UUID projectId) {
+        return new ProjectStatsDto(projectId, 0, 0, 0, 0, 0, 0, 0, 0, 0, null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.controller.dto;
+
+import com.example.demo.model.ProjectRole;
+import com.example.demo.model.TaskPriority;
+import com.example.demo.model.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Una línea del fichero NDJSON de exportación de un proyecto. El campo {@code type} indica el tipo
+ * de registro. El orden del fichero es: proyecto, miembros, tareas y comentarios. Los usuarios se
+ * identifican por nombre de usuario para que el fichero sea portable entre entornos.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = ProjectTransferLine.ProjectLine.class, name = "project"),
+        @JsonSubTypes.Type(value = ProjectTransferLine.MemberLine.class, name = "member"),
+        @JsonSubTypes.Type(value = ProjectTransferLine.TaskLine.class, name = "task"),
+        @JsonSubTypes.Type(value = ProjectTransferLine.CommentLine.class, name = "comment")
+})
+public sealed interface ProjectTransferLine {
+
+    record ProjectLine(UUID id, String name, String description, Instant startDate, Instant endDate)
+            implements ProjectTransferLine {}
+
+    record MemberLine(String username, ProjectRole role) implements ProjectTransferLine {}
+
+    record TaskLine(UUID id, String name, String description, TaskStatus status, TaskPriority priority,
+                    Instant dueDate, String assignee) implements ProjectTransferLine {}
+
+    record CommentLine(UUID id, UUID taskId, String content, Instant createdAt, Instant updatedAt,
+                       String author) implements ProjectTransferLine {}
+}
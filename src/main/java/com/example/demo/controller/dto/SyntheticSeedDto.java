@@ -0,0 +1,63 @@
+package com.example.demo.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(
+        name = "SyntheticSeedDto",
+        description = "Tamaño y forma del conjunto de datos sintético para pruebas de carga."
+)
+public record SyntheticSeedDto(
+
+        @Schema(description = "Número de usuarios.", example = "10000", requiredMode = RequiredMode.REQUIRED)
+        @NotNull
+        @Min(1)
+        @Max(10_000_000)
+        Integer users,
+
+        @Schema(description = "Número de proyectos.", example = "2000", requiredMode = RequiredMode.REQUIRED)
+        @NotNull
+        @Min(1)
+        @Max(1_000_000)
+        Integer projects,
+
+        @Schema(description = "Tareas en total, repartidas entre proyectos con una distribución de Zipf.", example = "1000000", requiredMode = RequiredMode.REQUIRED)
+        @NotNull
+        @Min(0)
+        @Max(100_000_000)
+        Long tasks,
+
+        @Schema(description = "Comentarios en total, concentrados en pocas tareas con una distribución de Zipf.", example = "3000000", requiredMode = RequiredMode.REQUIRED)
+        @NotNull
+        @Min(0)
+        Long comments,
+
+        @Schema(description = "Máximo de miembros por proyecto. Por defecto 50.", example = "50", requiredMode = RequiredMode.NOT_REQUIRED)
+        @Min(1)
+        Integer maxMembersPerProject,
+
+        @Schema(description = "Exponente de Zipf: 0 es uniforme, valores mayores concentran más. Por defecto 1.1.", example = "1.1", requiredMode = RequiredMode.NOT_REQUIRED)
+        @DecimalMin("0.0")
+        @DecimalMax("3.0")
+        Double skew,
+
+        @Schema(description = "Semilla del generador; la misma semilla produce los mismos datos.", example = "42", requiredMode = RequiredMode.NOT_REQUIRED)
+        Long seed
+) {
+    public int maxMembersOrDefault() {
+        return maxMembersPerProject == null ? 50 : maxMembersPerProject;
+    }
+
+    public double skewOrDefault() {
+        return skew == null ? 1.1 : skew;
+    }
+
+    public long seedOrDefault() {
+        return seed == null ? System.nanoTime() : seed;
+    }
+}
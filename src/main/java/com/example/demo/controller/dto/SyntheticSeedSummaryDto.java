@@ -0,0 +1,37 @@
+package com.example.demo.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        name = "SyntheticSeedSummaryDto",
+        description = "Resultado de generar datos sintéticos."
+)
+public record SyntheticSeedSummaryDto(
+
+        @Schema(description = "Prefijo de los nombres de usuario generados: <prefijo>0, <prefijo>1...", example = "lt3fa2b1_")
+        String usernamePrefix,
+
+        @Schema(description = "Contraseña común de todos los usuarios generados.", example = "password")
+        String password,
+
+        @Schema(description = "Semilla usada.", example = "42")
+        long seed,
+
+        @Schema(description = "Usuarios insertados.", example = "10000")
+        long users,
+
+        @Schema(description = "Proyectos insertados.", example = "2000")
+        long projects,
+
+        @Schema(description = "Membresías insertadas.", example = "15000")
+        long memberships,
+
+        @Schema(description = "Tareas insertadas.", example = "1000000")
+        long tasks,
+
+        @Schema(description = "Comentarios insertados.", example = "3000000")
+        long comments,
+
+        @Schema(description = "Duración en milisegundos.", example = "95000")
+        long elapsedMillis
+) {}
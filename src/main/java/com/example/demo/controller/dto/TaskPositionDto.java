@@ -0,0 +1,31 @@
+package com.example.demo.controller.dto;
+
+import com.example.demo.model.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(
+        name = "TaskPositionDto",
+        description = "Nueva posición de una tarea en el tablero tras moverla."
+)
+public record TaskPositionDto(
+
+        @Schema(
+                description = "Identificador de la tarea.",
+                example = "a7d2b1d0-5e3a-45f1-97c8-2e5f1c81d0c5"
+        )
+        UUID id,
+
+        @Schema(
+                description = "Columna (estado) en la que queda la tarea.",
+                example = "IN_PROGRESS"
+        )
+        TaskStatus status,
+
+        @Schema(
+                description = "Posición de la tarea dentro de la columna (orden lexicográfico).",
+                example = "V1"
+        )
+        String rank
+) {}
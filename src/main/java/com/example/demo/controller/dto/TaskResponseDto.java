@@ -59,5 +59,11 @@ public record TaskResponseDto(
                 description = "Identificador del proyecto al que pertenece la tarea.",
                 example = "a7d2b1d0-5e3a-45f1-97c8-2e5f1c81d0c5"
         )
-        UUID project
+        UUID project,
+
+        @Schema(
+                description = "Posición de la tarea dentro de su columna del tablero (orden lexicográfico).",
+                example = "V1"
+        )
+        String rank
 ) {}
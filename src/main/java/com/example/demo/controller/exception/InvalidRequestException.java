@@ -0,0 +1,11 @@
+package com.example.demo.controller.exception;
+
+/**
+ * The request is well formed but its values are not acceptable (unknown field, inconsistent
+ * parameters...). Mapped to 400.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
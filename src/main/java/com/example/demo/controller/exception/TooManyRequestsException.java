@@ -0,0 +1,18 @@
+package com.example.demo.controller.exception;
+
+/**
+ * The server is shedding load; the client should retry after {@link #getRetryAfterSeconds()}.
+ * Mapped to 429 with a {@code Retry-After} header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.controller.preconditions;
+
+import com.example.demo.model.Comment;
+import com.example.demo.model.Project;
+import com.example.demo.model.ProjectRole;
+import com.example.demo.model.Task;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+/**
+ * Construye las ETags de las entidades versionadas y valida las cabeceras If-Match.
+ * Las ETags son fuertes y se derivan de la columna {@code @Version}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Task task) {
+        return String.valueOf(task.getVersion());
+    }
+
+    public static String of(Comment comment) {
+        return String.valueOf(comment.getVersion());
+    }
+
+    // El DTO de proyecto incluye el rol del usuario, por lo que también forma parte de la ETag
+    public static String of(Project project, ProjectRole role) {
+        return project.getVersion() + "-" + role;
+    }
+
+    /**
+     * Comprueba la cabecera If-Match contra la ETag actual del recurso.
+     * Si la cabecera no se envía no se aplica ninguna precondición.
+     *
+     * @throws ResponseStatusException 412 si ninguna de las ETags indicadas coincide
+     */
+    public static void checkIfMatch(String ifMatch, String currentTag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            // If-Match usa comparación fuerte: las ETags débiles nunca coinciden
+            if (value.equals("*") || value.equals("\"" + currentTag + "\"")) {
+                return;
+            }
+        }
+        throw new ResponseStatusException(PRECONDITION_FAILED, "Resource has been modified by another request");
+    }
+}
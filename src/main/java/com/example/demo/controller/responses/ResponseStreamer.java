@@ -0,0 +1,94 @@
+package com.example.demo.controller.responses;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a {@link Response} envelope whose {@code data} array is filled element by element,
+ * so the list is never held in memory. The resulting JSON is identical to serializing a
+ * {@code Response<List<T>>}.
+ * <p>
+ * Once the first bytes are sent the status can no longer change: an error while reading the
+ * source aborts the connection and the client receives a truncated document.
+ */
+@Component
+public class ResponseStreamer {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter elementWriter;
+
+    public ResponseStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Source of the elements; it must push every element to the sink before returning.
+     */
+    @FunctionalInterface
+    public interface ElementSource<T> {
+        void forEach(Consumer<? super T> sink);
+    }
+
+    /**
+     * Writes the {@code data} field of the envelope. {@link #writeValue} serializes a nested value
+     * exactly as it would appear inside a {@link Response}.
+     */
+    @FunctionalInterface
+    public interface DataWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> ok(String message, ElementSource<T> source) {
+        return okData(message, generator -> {
+            generator.writeStartArray();
+            source.forEach(element -> writeValue(generator, element));
+            generator.writeEndArray();
+        });
+    }
+
+    /**
+     * Same envelope, but {@code data} is written by the caller (for example an object that contains a
+     * streamed array). The writer must leave exactly one JSON value.
+     */
+    public ResponseEntity<StreamingResponseBody> okData(String message, DataWriter data) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                generator.writeStartObject();
+                generator.writeStringField("status", "SUCCESS");
+                generator.writeStringField("message", message);
+                generator.writeFieldName("data");
+                data.write(generator);
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Serializes one value into the generator; I/O errors are rethrown unchecked so it can be called
+     * from the element consumers.
+     */
+    public void writeValue(JsonGenerator generator, Object value) {
+        try {
+            elementWriter.writeValue(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.example.demo.mapper;
 
 import com.example.demo.controller.dto.CreateProjectDto;
 import com.example.demo.controller.dto.ProjectResponseDto;
+import com.example.demo.controller.dto.ProjectStatsDto;
 import com.example.demo.controller.dto.UpdateProjectDto;
 import com.example.demo.model.Project;
+import com.example.demo.model.ProjectTaskStats;
 import com.example.demo.model.UserHasProjects;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -25,4 +27,7 @@ public interface ProjectMapper {
     @Mapping(target = "endDate", source = "project.endDate")
     @Mapping(target = "role", source = "role")
     ProjectResponseDto toResponse(UserHasProjects relation);
+
+    @Mapping(target = "total", expression = "java(stats.getNotStarted() + stats.getInProgress() + stats.getDone())")
+    ProjectStatsDto toResponse(ProjectTaskStats stats);
 }
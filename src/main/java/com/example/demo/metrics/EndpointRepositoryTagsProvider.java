@@ -0,0 +1,22 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Añade la etiqueta {@code endpoint} a las métricas {@code spring.data.repository.invocations}
+ * que Spring Boot registra para cada método de los repositorios.
+ */
+@Component
+public class EndpointRepositoryTagsProvider implements RepositoryTagsProvider {
+    private final DefaultRepositoryTagsProvider defaults = new DefaultRepositoryTagsProvider();
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(defaults.repositoryTags(invocation)).and(HotPathMetrics.endpointTag());
+    }
+}
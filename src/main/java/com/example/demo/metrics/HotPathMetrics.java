@@ -0,0 +1,137 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Temporizadores de los puntos calientes de una petición (filtro JWT, aspecto de roles, mappers...).
+ * <p>
+ * Cada medida lleva la etiqueta {@code endpoint} ("GET /api/project/{projectId}/tasks") del handler
+ * que atiende la petición actual, o {@value #NO_ENDPOINT} si se ejecuta fuera de una petición (tareas
+ * programadas) o la petición no llega a ningún handler. Los filtros se ejecutan antes de resolver el
+ * handler, así que miden con {@link #timeDeferred} y registran con {@link #recordDeferred} al volver
+ * de la cadena. Los Timer se crean una vez por combinación de nombre, etiquetas y endpoint.
+ */
+@Component
+public class HotPathMetrics {
+    public static final String ENDPOINT_TAG = "endpoint";
+    public static final String NO_ENDPOINT = "none";
+
+    // Medidas tomadas antes de conocer el endpoint, pendientes de registrar
+    static final String DEFERRED_ATTRIBUTE = HotPathMetrics.class.getName() + ".DEFERRED";
+
+    private record TimerKey(String name, List<String> tags, String endpoint) {
+    }
+
+    private record Deferred(String name, String[] tags, long nanos) {
+    }
+
+    private final MeterRegistry registry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public HotPathMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T time(String name, Supplier<T> body, String... tags) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return body.get();
+        } finally {
+            sample.stop(timer(name, tags));
+        }
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, String name, String... tags) {
+        sample.stop(timer(name, tags));
+    }
+
+    /**
+     * Mide {@code body} ahora pero guarda la medida en la petición; se registra en
+     * {@link #recordDeferred}, cuando ya se sabe qué endpoint la atiende.
+     */
+    public <T> T timeDeferred(HttpServletRequest request, String name, Supplier<T> body, String... tags) {
+        long start = registry.config().clock().monotonicTime();
+        try {
+            return body.get();
+        } finally {
+            deferred(request).add(new Deferred(name, tags, registry.config().clock().monotonicTime() - start));
+        }
+    }
+
+    public void recordDeferred(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        List<Deferred> pending = (List<Deferred>) request.getAttribute(DEFERRED_ATTRIBUTE);
+        if (pending == null) {
+            return;
+        }
+        request.removeAttribute(DEFERRED_ATTRIBUTE);
+        String endpoint = endpoint(request);
+        for (Deferred measure : pending) {
+            timer(measure.name(), endpoint, measure.tags()).record(measure.nanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String name, String... tags) {
+        return timer(name, currentEndpoint(), tags);
+    }
+
+    private Timer timer(String name, String endpoint, String... tags) {
+        return timers.computeIfAbsent(new TimerKey(name, List.of(tags), endpoint), key -> Timer.builder(name)
+                .tags(Tags.of(tags).and(ENDPOINT_TAG, endpoint))
+                .register(registry));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Deferred> deferred(HttpServletRequest request) {
+        List<Deferred> pending = (List<Deferred>) request.getAttribute(DEFERRED_ATTRIBUTE);
+        if (pending == null) {
+            pending = new ArrayList<>(4);
+            request.setAttribute(DEFERRED_ATTRIBUTE, pending);
+        }
+        return pending;
+    }
+
+    public static Tag endpointTag() {
+        return Tag.of(ENDPOINT_TAG, currentEndpoint());
+    }
+
+    /**
+     * Método HTTP y plantilla de la ruta del handler actual. Se usa la plantilla y no la URI
+     * para que el número de series no crezca con los ids.
+     */
+    public static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NO_ENDPOINT;
+        }
+        return endpoint(servletAttributes.getRequest());
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return NO_ENDPOINT;
+        }
+        return request.getMethod() + " " + pattern;
+    }
+}
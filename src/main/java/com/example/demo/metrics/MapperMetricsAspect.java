@@ -0,0 +1,49 @@
+package com.example.demo.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mide cada llamada a los mappers de MapStruct inyectados como beans.
+ * El acceso estático ({@code TaskMapper.INSTANCE}) no pasa por el proxy y no se mide.
+ */
+@Aspect
+@Component
+public class MapperMetricsAspect {
+    private final HotPathMetrics metrics;
+    // Etiquetas de cada método; se calculan una vez porque los mappers se llaman por cada elemento
+    private final Map<Method, String[]> tagsByMethod = new ConcurrentHashMap<>();
+
+    public MapperMetricsAspect(HotPathMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Around("within(com.example.demo.mapper..*) && execution(public * *(..))")
+    public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        var sample = metrics.start();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            metrics.stop(sample, "app.mapper", tagsByMethod.computeIfAbsent(
+                    ((MethodSignature) joinPoint.getSignature()).getMethod(),
+                    method -> new String[]{"mapper", mapperName(method.getDeclaringClass()), "method", method.getName()}));
+        }
+    }
+
+    // Nombre de la interfaz (TaskMapper) en lugar de la clase generada (TaskMapperImpl)
+    private static String mapperName(Class<?> type) {
+        for (Class<?> anInterface : type.getInterfaces()) {
+            if (anInterface.getPackageName().equals(type.getPackageName())) {
+                return anInterface.getSimpleName();
+            }
+        }
+        return type.getSimpleName();
+    }
+}
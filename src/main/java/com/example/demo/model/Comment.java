@@ -1,6 +1,7 @@
 package com.example.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
 @Table(name = "comments")
 public class Comment {
     @Id
@@ -32,6 +34,10 @@ public class Comment {
     @JoinColumn(name = "task_id", referencedColumnName = "id")
     private Task task;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public Comment(String content, Instant createdAt, User user, Task task) {
         this.content = content;
         this.createdAt = createdAt == null ? Instant.now() : createdAt;
@@ -90,4 +96,8 @@ public class Comment {
     public void setTask(Task task) {
         this.task = task;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,78 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Respuesta guardada para una cabecera {@code Idempotency-Key}.
+ * <p>
+ * La clave es el SHA-256 de usuario, ruta y cabecera, y {@code requestHash} el del cuerpo de la
+ * petición. Mientras el handler se ejecuta {@code status} es null y {@code claimedAt} se renueva
+ * periódicamente; después guarda el estado, el tipo de contenido, las demás cabeceras (una por línea,
+ * {@code Nombre: valor}) y los bytes de la respuesta hasta {@code expiresAt}.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyKey {
+    @Id
+    @Column(name = "key_hash", columnDefinition = "char(64)")
+    private String keyHash;
+
+    @Column(name = "request_hash", columnDefinition = "char(64)", nullable = false)
+    private String requestHash;
+
+    private Integer status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(columnDefinition = "text")
+    private String headers;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] body;
+
+    @Column(name = "claimed_at", nullable = false)
+    private Instant claimedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public IdempotencyKey() {
+    }
+
+    public String getKeyHash() {
+        return keyHash;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Evento de dominio pendiente de entrega. Se inserta en la misma transacción que el cambio
+ * de la entidad y lo drena {@link com.example.demo.service.OutboxRelay} por lotes. Si la entrega
+ * falla se reintenta más tarde y, tras demasiados intentos, queda marcado con {@code failed_at}
+ * (dead letter) para que no bloquee al resto.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_created_at", columnList = "created_at")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "aggregate_type", length = 20, nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private UUID aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 30, nullable = false)
+    private OutboxEventType eventType;
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "failed_at")
+    private Instant failedAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(OutboxEventType eventType, UUID aggregateId, String payload) {
+        this.aggregateType = eventType.getAggregateType();
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public UUID getAggregateId() {
+        return aggregateId;
+    }
+
+    public OutboxEventType getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public Instant getFailedAt() {
+        return failedAt;
+    }
+
+    /**
+     * Registra una entrega fallida: se reintenta tras {@code attempts * backoff} o, al llegar a
+     * {@code maxAttempts}, pasa a dead letter.
+     */
+    public void recordFailure(Throwable error, Instant now, int maxAttempts, long backoffMs) {
+        this.attempts++;
+        this.lastError = String.valueOf(error);
+        if (attempts >= maxAttempts) {
+            this.failedAt = now;
+        } else {
+            this.nextAttemptAt = now.plusMillis(backoffMs * attempts);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.model;
+
+/**
+ * Tipos de eventos de dominio que se registran en la tabla outbox.
+ * Cada tipo conoce el agregado al que pertenece para que los consumidores puedan filtrar.
+ */
+public enum OutboxEventType {
+    PROJECT_CREATED("PROJECT"),
+    PROJECT_UPDATED("PROJECT"),
+    PROJECT_DELETED("PROJECT"),
+    MEMBER_ADDED("PROJECT"),
+    MEMBER_REMOVED("PROJECT"),
+    TASK_CREATED("TASK"),
+    TASK_UPDATED("TASK"),
+    TASK_DELETED("TASK"),
+    TASK_MOVED("TASK"),
+    COMMENT_CREATED("COMMENT"),
+    COMMENT_UPDATED("COMMENT"),
+    COMMENT_DELETED("COMMENT"),
+    INVITATION_SENT("INVITATION"),
+    INVITATION_REMOVED("INVITATION");
+
+    private final String aggregateType;
+
+    OutboxEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Contadores materializados de las tareas de un proyecto. Se mantienen de forma incremental
+ * desde {@link com.example.demo.service.ProjectService} y se reconcilian periódicamente.
+ * El número de tareas vencidas depende de la hora actual, por lo que solo se recalcula en la reconciliación.
+ */
+@Entity
+@Table(name = "project_task_stats")
+public class ProjectTaskStats {
+    @Id
+    @Column(name = "project_id")
+    private UUID projectId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "project_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Project project;
+
+    @Column(name = "not_started", nullable = false)
+    private long notStarted;
+
+    @Column(name = "in_progress", nullable = false)
+    private long inProgress;
+
+    @Column(nullable = false)
+    private long done;
+
+    @Column(name = "low_priority", nullable = false)
+    private long lowPriority;
+
+    @Column(name = "medium_priority", nullable = false)
+    private long mediumPriority;
+
+    @Column(name = "high_priority", nullable = false)
+    private long highPriority;
+
+    @Column(name = "critical_priority", nullable = false)
+    private long criticalPriority;
+
+    @Column(nullable = false)
+    private long overdue;
+
+    @Column(name = "reconciled_at")
+    private Instant reconciledAt;
+
+    public ProjectTaskStats() {
+    }
+
+    public UUID getProjectId() {
+        return projectId;
+    }
+
+    public long getNotStarted() {
+        return notStarted;
+    }
+
+    public long getInProgress() {
+        return inProgress;
+    }
+
+    public long getDone() {
+        return done;
+    }
+
+    public long getLowPriority() {
+        return lowPriority;
+    }
+
+    public long getMediumPriority() {
+        return mediumPriority;
+    }
+
+    public long getHighPriority() {
+        return highPriority;
+    }
+
+    public long getCriticalPriority() {
+        return criticalPriority;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+}
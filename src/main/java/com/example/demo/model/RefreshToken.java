@@ -1,41 +1,88 @@
 package com.example.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * Familia de tokens de refresco: una sesión de un usuario en un dispositivo.
+ * <p>
+ * El id de la fila es el id de la familia y va en el propio token ({@code familia.secreto}), así que
+ * rotar, detectar reutilización y revocar son siempre un UPDATE por clave primaria. Solo se guarda el
+ * SHA-256 del secreto vigente y del anterior ({@code previous_token_hash}, con la hora de la rotación
+ * en {@code rotated_at}) para distinguir una reutilización real de un secreto inventado;
+ * {@code generation} cuenta las rotaciones y {@code revoked} invalida la familia entera.
+ */
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_sessions", indexes = {
+        @Index(name = "idx_refresh_sessions_user_id", columnList = "user_id"),
+        @Index(name = "idx_refresh_sessions_expiry_date", columnList = "expiry_date")
+})
 public class RefreshToken {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(unique = true)
-    private String token;
+    @Column(name = "token_hash", columnDefinition = "char(64)", nullable = false)
+    private String tokenHash;
+
+    @Column(name = "previous_token_hash", columnDefinition = "char(64)")
+    private String previousTokenHash;
+
+    @Column(name = "rotated_at")
+    private Instant rotatedAt;
 
-    @Column(name = "expiry_date")
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int generation;
+
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
 
-    @OneToOne
-    @JoinColumn(name = "user_id", referencedColumnName = "id")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
 
     public RefreshToken() {
     }
 
-    public RefreshToken(String token, Instant expiryDate, User userId) {
-        this.token = token;
+    public RefreshToken(String tokenHash, Instant expiryDate, User user) {
+        this.tokenHash = tokenHash;
         this.expiryDate = expiryDate;
-        this.user = userId;
+        this.user = user;
     }
 
     public UUID getId() {
         return id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getPreviousTokenHash() {
+        return previousTokenHash;
+    }
+
+    public Instant getRotatedAt() {
+        return rotatedAt;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
     }
 
     public Instant getExpiryDate() {
@@ -50,8 +97,24 @@ public class RefreshToken {
         this.id = id;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public void setPreviousTokenHash(String previousTokenHash) {
+        this.previousTokenHash = previousTokenHash;
+    }
+
+    public void setRotatedAt(Instant rotatedAt) {
+        this.rotatedAt = rotatedAt;
+    }
+
+    public void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
     }
 
     public void setExpiryDate(Instant expiryDate) {
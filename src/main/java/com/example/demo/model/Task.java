@@ -1,6 +1,7 @@
 package com.example.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -10,7 +11,10 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tasks")
+@DynamicUpdate
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_project_status_rank", columnList = "project_id, status, rank")
+})
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -45,6 +49,21 @@ public class Task {
     @OnDelete(action = OnDeleteAction.CASCADE)
     private List<Comment> comments = new ArrayList<>();
 
+    // Orden dentro de la columna del tablero (ver TaskRanks); collation "C" para que compare byte a byte
+    @Column(name = "rank", columnDefinition = "varchar(64) COLLATE \"C\"")
+    private String rank;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    // Estado y prioridad tal como están en base de datos, para calcular los deltas de las estadísticas
+    @Transient
+    private TaskStatus persistedStatus;
+
+    @Transient
+    private TaskPriority persistedPriority;
+
     public Task(String name, String description, TaskStatus status, TaskPriority priority, Instant dueDate, User user, Project project) {
         this.name = name;
         this.description = description;
@@ -127,4 +146,30 @@ public class Task {
     public void setComments(List<Comment> comments) {
         this.comments = comments;
     }
+
+    public String getRank() {
+        return rank;
+    }
+
+    public void setRank(String rank) {
+        this.rank = rank;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public TaskStatus getPersistedStatus() {
+        return persistedStatus;
+    }
+
+    public TaskPriority getPersistedPriority() {
+        return persistedPriority;
+    }
+
+    @PostLoad
+    public void rememberPersistedState() {
+        this.persistedStatus = status;
+        this.persistedPriority = priority;
+    }
 }
@@ -3,10 +3,45 @@ package com.example.demo.repository;
 import com.example.demo.model.Comment;
 import com.example.demo.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
+    // Columnas devueltas por deleteByIdAndTask
+    interface DeletedComment {
+        UUID getAuthor();
+    }
+
     List<Comment> findAllByTask(Task task);
+
+    // Borra el comentario solo si pertenece a la tarea del proyecto indicado; vacío si no existe
+    @Transactional
+    @Query(value = "DELETE FROM comments c USING tasks t " +
+            "WHERE c.id = :commentId AND c.task_id = :taskId AND t.id = c.task_id AND t.project_id = :projectId " +
+            "RETURNING c.author", nativeQuery = true)
+    Optional<DeletedComment> deleteByIdAndTask(@Param("commentId") UUID commentId,
+                                               @Param("taskId") UUID taskId,
+                                               @Param("projectId") UUID projectId);
+
+    // Cursor de solo avance para las respuestas en streaming, en orden cronológico
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user JOIN FETCH c.task t " +
+            "WHERE t.id = :taskId AND t.project.id = :projectId ORDER BY c.createdAt")
+    Stream<Comment> streamAllByTask(@Param("taskId") UUID taskId, @Param("projectId") UUID projectId);
+
+    // Huella de los comentarios de una tarea (igual que la de las tareas, sin ordenar); vacío si la tarea no existe en el proyecto
+    @Query(value = "SELECT count(c.id) || '-' || coalesce(sum(c.version), 0) || '-' || coalesce(bit_xor(hashtext(CAST(c.id AS text))), 0) " +
+            "FROM tasks t LEFT JOIN comments c ON c.task_id = t.id " +
+            "WHERE t.id = :taskId AND t.project_id = :projectId GROUP BY t.id", nativeQuery = true)
+    Optional<String> findVersionTagByTask(@Param("taskId") UUID taskId, @Param("projectId") UUID projectId);
 }
@@ -0,0 +1,119 @@
+package com.example.demo.repository;
+
+import com.example.demo.controller.exception.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Campos que se pueden pedir con {@code fields=} en un listado y la expresión JPQL de cada uno.
+ * Un campo puede ser un valor simple o un objeto anidado que necesita un JOIN; el JOIN solo se
+ * añade a la consulta si se pide ese campo. El id se devuelve siempre.
+ */
+public final class FieldProjection {
+
+    public static final FieldProjection TASK = new FieldProjection("Task t", "t.project.id = :projectId")
+            .scalar("id", "t.id")
+            .scalar("name", "t.name")
+            .scalar("description", "t.description")
+            .scalar("status", "t.status")
+            .scalar("priority", "t.priority")
+            .scalar("dueDate", "t.dueDate")
+            .scalar("project", "t.project.id")
+            .scalar("rank", "t.rank")
+            .nested("assignedUser", "LEFT JOIN t.user u", "id", "u.id", "username", "u.username", "email", "u.email");
+
+    public static final FieldProjection COMMENT = new FieldProjection("Comment c",
+            "c.task.id = :taskId AND c.task.project.id = :projectId")
+            .scalar("id", "c.id")
+            .scalar("content", "c.content")
+            .scalar("createdAt", "c.createdAt")
+            .scalar("updatedAt", "c.updatedAt")
+            .nested("user", "LEFT JOIN c.user u", "id", "u.id", "username", "u.username", "email", "u.email");
+
+    public static final FieldProjection PROJECT = new FieldProjection("UserHasProjects up JOIN up.project p",
+            "up.user.id = :userId")
+            .scalar("id", "p.id")
+            .scalar("name", "p.name")
+            .scalar("description", "p.description")
+            .scalar("startDate", "p.startDate")
+            .scalar("endDate", "p.endDate")
+            .scalar("role", "up.role");
+
+    record Field(String join, Map<String, String> paths) {
+        boolean isNested() {
+            return join != null;
+        }
+    }
+
+    private final String from;
+    private final String where;
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+
+    private FieldProjection(String from, String where) {
+        this.from = from;
+        this.where = where;
+    }
+
+    private FieldProjection scalar(String name, String path) {
+        fields.put(name, new Field(null, Map.of(name, path)));
+        return this;
+    }
+
+    private FieldProjection nested(String name, String join, String... keysAndPaths) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndPaths.length; i += 2) {
+            paths.put(keysAndPaths[i], keysAndPaths[i + 1]);
+        }
+        fields.put(name, new Field(join, paths));
+        return this;
+    }
+
+    /**
+     * Convierte el parámetro {@code fields} (nombres separados por comas) en la lista de campos a
+     * seleccionar, en el orden de la definición.
+     *
+     * @throws InvalidRequestException si se pide un campo que no existe
+     */
+    public List<String> select(String requested) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String name : requested.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!fields.containsKey(trimmed)) {
+                throw new InvalidRequestException(
+                        "Unknown field '" + trimmed + "'. Allowed fields: " + String.join(", ", fields.keySet()));
+            }
+            names.add(trimmed);
+        }
+        return fields.keySet().stream().filter(names::contains).toList();
+    }
+
+    String jpql(List<String> selected, String orderBy) {
+        List<String> columns = new ArrayList<>();
+        Set<String> joins = new LinkedHashSet<>();
+        for (String name : selected) {
+            Field field = fields.get(name);
+            columns.addAll(field.paths().values());
+            if (field.isNested()) {
+                joins.add(field.join());
+            }
+        }
+        StringBuilder jpql = new StringBuilder("SELECT ").append(String.join(", ", columns)).append(" FROM ").append(from);
+        joins.forEach(join -> jpql.append(' ').append(join));
+        return jpql.append(" WHERE ").append(where)
+                .append(orderBy == null ? "" : " ORDER BY " + orderBy)
+                .toString();
+    }
+
+    Field field(String name) {
+        return fields.get(name);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ejecuta las consultas de {@link FieldProjection}: solo se seleccionan las columnas de los campos
+ * pedidos y cada fila se devuelve como un mapa con esos campos, listo para serializar.
+ */
+@Repository
+public class FieldProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    public FieldProjectionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public List<Map<String, Object>> find(FieldProjection projection, List<String> selected,
+                                          Map<String, Object> parameters, String orderBy) {
+        TypedQuery<Tuple> query = entityManager.createQuery(projection.jpql(selected, orderBy), Tuple.class);
+        parameters.forEach(query::setParameter);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int column = 0;
+            for (String name : selected) {
+                FieldProjection.Field field = projection.field(name);
+                if (!field.isNested()) {
+                    row.put(name, tuple.get(column++));
+                    continue;
+                }
+                Map<String, Object> nested = new LinkedHashMap<>();
+                for (String key : field.paths().keySet()) {
+                    nested.put(key, tuple.get(column++));
+                }
+                // LEFT JOIN sin fila asociada: el objeto anidado es null, igual que en el DTO completo
+                row.put(name, nested.get("id") == null ? null : nested);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Reserva la clave en una sola sentencia: la crea, o reutiliza la fila si ha caducado o si se quedó a medias
+    // (sin respuesta desde antes de staleBefore). Devuelve 0 si otra petición ya la tiene
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+            INSERT INTO idempotency_keys AS k (key_hash, request_hash, claimed_at, expires_at)
+            VALUES (:keyHash, :requestHash, :now, :expiresAt)
+            ON CONFLICT (key_hash) DO UPDATE SET
+                request_hash = EXCLUDED.request_hash, status = NULL, content_type = NULL, headers = NULL, body = NULL,
+                claimed_at = EXCLUDED.claimed_at, expires_at = EXCLUDED.expires_at
+            WHERE k.expires_at <= :now OR (k.status IS NULL AND k.claimed_at <= :staleBefore)
+            """, nativeQuery = true)
+    int claim(@Param("keyHash") String keyHash, @Param("requestHash") String requestHash, @Param("now") Instant now,
+              @Param("staleBefore") Instant staleBefore, @Param("expiresAt") Instant expiresAt);
+
+    // Renueva la reserva de una petición que sigue en curso para que un reintento no la dé por abandonada
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyKey k SET k.claimedAt = :now WHERE k.keyHash = :keyHash AND k.status IS NULL")
+    int touch(@Param("keyHash") String keyHash, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE IdempotencyKey k SET k.status = :status, k.contentType = :contentType, k.headers = :headers, k.body = :body
+            WHERE k.keyHash = :keyHash
+            """)
+    int complete(@Param("keyHash") String keyHash, @Param("status") int status, @Param("contentType") String contentType,
+                 @Param("headers") String headers, @Param("body") byte[] body);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKey k WHERE k.keyHash = :keyHash")
+    int release(@Param("keyHash") String keyHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,18 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    // SKIP LOCKED permite que varios nodos drenen la tabla a la vez sin entregar dos veces el mismo evento.
+    // Se saltan los eventos en dead letter y los que esperan a su siguiente reintento
+    @Query(value = "SELECT * FROM outbox_events WHERE failed_at IS NULL AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit, @Param("now") Instant now);
+}
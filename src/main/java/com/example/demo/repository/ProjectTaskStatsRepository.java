@@ -0,0 +1,88 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ProjectTaskStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+// Las sentencias nativas declaran la tabla que modifican; sin ello Hibernate vacía toda la caché de segundo nivel
+public interface ProjectTaskStatsRepository extends JpaRepository<ProjectTaskStats, UUID> {
+
+    // Suma los deltas a los contadores del proyecto en una única sentencia. Devuelve 0 si el proyecto aún no tiene
+    // fila: un delta no sirve para crearla, porque las tareas anteriores no se contarían
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "project_task_stats"))
+    @Query(value = "UPDATE project_task_stats SET " +
+            "not_started = not_started + :notStarted, " +
+            "in_progress = in_progress + :inProgress, " +
+            "done = done + :done, " +
+            "low_priority = low_priority + :low, " +
+            "medium_priority = medium_priority + :medium, " +
+            "high_priority = high_priority + :high, " +
+            "critical_priority = critical_priority + :critical " +
+            "WHERE project_id = :projectId", nativeQuery = true)
+    int applyDelta(@Param("projectId") UUID projectId,
+                    @Param("notStarted") long notStarted,
+                    @Param("inProgress") long inProgress,
+                    @Param("done") long done,
+                    @Param("low") long low,
+                    @Param("medium") long medium,
+                    @Param("high") long high,
+                    @Param("critical") long critical);
+
+    // Recalcula desde cero los contadores de todos los proyectos, incluidas las tareas vencidas
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "project_task_stats"))
+    @Query(value = "INSERT INTO project_task_stats (project_id, not_started, in_progress, done, low_priority, medium_priority, high_priority, critical_priority, overdue, reconciled_at) " +
+            "SELECT p.id, " +
+            "count(t.id) FILTER (WHERE t.status = 'NOT_STARTED'), " +
+            "count(t.id) FILTER (WHERE t.status = 'IN_PROGRESS'), " +
+            "count(t.id) FILTER (WHERE t.status = 'DONE'), " +
+            "count(t.id) FILTER (WHERE t.priority = 'LOW'), " +
+            "count(t.id) FILTER (WHERE t.priority = 'MEDIUM'), " +
+            "count(t.id) FILTER (WHERE t.priority = 'HIGH'), " +
+            "count(t.id) FILTER (WHERE t.priority = 'CRITICAL'), " +
+            "count(t.id) FILTER (WHERE t.status <> 'DONE' AND t.due_date < :now), " +
+            ":now " +
+            "FROM projects p LEFT JOIN tasks t ON t.project_id = p.id GROUP BY p.id " +
+            "ON CONFLICT (project_id) DO UPDATE SET " +
+            "not_started = EXCLUDED.not_started, in_progress = EXCLUDED.in_progress, done = EXCLUDED.done, " +
+            "low_priority = EXCLUDED.low_priority, medium_priority = EXCLUDED.medium_priority, " +
+            "high_priority = EXCLUDED.high_priority, critical_priority = EXCLUDED.critical_priority, " +
+            "overdue = EXCLUDED.overdue, reconciled_at = EXCLUDED.reconciled_at", nativeQuery = true)
+    int reconcileAll(@Param("now") Instant now);
+
+    // Igual que reconcileAll, limitado a un proyecto
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "project_task_stats"))
+    @Query(value = "INSERT INTO project_task_stats (project_id, not_started, in_progress, done, low_priority, medium_priority, high_priority, critical_priority, overdue, reconciled_at) " +
+            "SELECT p.id, " +
+            "count(t.id) FILTER (WHERE t.status = 'NOT_STARTED'), " +
+            "count(t.id) FILTER (WHERE t.status = 'IN_PROGRESS'), " +
+            "count(t.id) FILTER (WHERE t.status = 'DONE'), " +
+            "count(t.id) FILTER (WHERE t.priority = 'LOW'), " +
+            "count(t.id) FILTER (WHERE t.priority = 'MEDIUM'), " +
+            "count(t.id) FILTER (WHERE t.priority = 'HIGH'), " +
+            "count(t.id) FILTER (WHERE t.priority = 'CRITICAL'), " +
+            "count(t.id) FILTER (WHERE t.status <> 'DONE' AND t.due_date < :now), " +
+            ":now " +
+            "FROM projects p LEFT JOIN tasks t ON t.project_id = p.id WHERE p.id = :projectId GROUP BY p.id " +
+            "ON CONFLICT (project_id) DO UPDATE SET " +
+            "not_started = EXCLUDED.not_started, in_progress = EXCLUDED.in_progress, done = EXCLUDED.done, " +
+            "low_priority = EXCLUDED.low_priority, medium_priority = EXCLUDED.medium_priority, " +
+            "high_priority = EXCLUDED.high_priority, critical_priority = EXCLUDED.critical_priority, " +
+            "overdue = EXCLUDED.overdue, reconciled_at = EXCLUDED.reconciled_at", nativeQuery = true)
+    int reconcileProject(@Param("projectId") UUID projectId, @Param("now") Instant now);
+}
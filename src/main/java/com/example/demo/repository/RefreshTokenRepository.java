@@ -1,7 +1,6 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.RefreshToken;
-import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,15 +8,62 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
-    Optional<RefreshToken> findByToken(String token);
-    Optional<RefreshToken> findByUser(User user);
+    // Rota el secreto de la familia con un único UPDATE por clave primaria.
+    // Devuelve el usuario, o vacío si la familia no existe, está revocada o expirada, o el secreto no es el vigente
+    @Transactional
+    @Query(value = """
+            UPDATE refresh_sessions
+            SET previous_token_hash = token_hash, rotated_at = :now, token_hash = :newHash,
+                generation = generation + 1, expiry_date = :expiry
+            WHERE id = :familyId AND token_hash = :hash AND NOT revoked AND expiry_date > :now
+            RETURNING user_id
+            """, nativeQuery = true)
+    Optional<UUID> rotate(@Param("familyId") UUID familyId, @Param("hash") String hash, @Param("newHash") String newHash,
+                          @Param("now") Instant now, @Param("expiry") Instant expiry);
+
+    // Login desde un dispositivo que ya tiene sesión del mismo usuario: se rota esa familia en lugar de abrir otra.
+    // No se comprueba la caducidad porque el usuario acaba de autenticarse con su contraseña
+    @Transactional
+    @Query(value = """
+            UPDATE refresh_sessions
+            SET previous_token_hash = token_hash, rotated_at = :now, token_hash = :newHash,
+                generation = generation + 1, expiry_date = :expiry
+            WHERE id = :familyId AND token_hash = :hash AND user_id = :userId AND NOT revoked
+            RETURNING user_id
+            """, nativeQuery = true)
+    Optional<UUID> reissue(@Param("familyId") UUID familyId, @Param("hash") String hash, @Param("userId") UUID userId,
+                           @Param("newHash") String newHash, @Param("now") Instant now, @Param("expiry") Instant expiry);
+
+    // Se ha presentado el secreto de la generación anterior después de la ventana de gracia: el token se ha
+    // filtrado y se revoca toda la familia. Un secreto que no es ni el vigente ni el anterior (inventado o de
+    // una generación más antigua) no revoca nada, y dentro de la ventana puede ser otra pestaña refrescando
+    // a la vez. Devuelve la generación en la que estaba, o vacío si no había nada que revocar
+    @Transactional
+    @Query(value = """
+            UPDATE refresh_sessions
+            SET revoked = true
+            WHERE id = :familyId AND previous_token_hash = :hash AND rotated_at <= :graceStart
+              AND NOT revoked AND expiry_date > :now
+            RETURNING generation
+            """, nativeQuery = true)
+    Optional<Integer> revokeOnReuse(@Param("familyId") UUID familyId, @Param("hash") String hash,
+                                    @Param("graceStart") Instant graceStart, @Param("now") Instant now);
+
+    // Solo quien tiene el secreto vigente puede cerrar la sesión
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.id = :familyId AND r.tokenHash = :hash AND r.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("hash") String hash);
+
+    // Las familias revocadas ya no sirven para detectar nada: un token de una familia borrada también se rechaza
     @Modifying
-    @Transactional   // a menudo se puede poner en el service, pero es seguro aquí
-    @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
-    void deleteByUserId(@Param("userId") UUID userId);
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.expiryDate <= :now OR r.revoked = true")
+    int deleteExpiredOrRevoked(@Param("now") Instant now);
 }
@@ -2,22 +2,116 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Project;
 import com.example.demo.model.Task;
+import com.example.demo.model.TaskStatus;
 import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.swing.text.html.Option;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
 
 public interface TaskRepository extends JpaRepository<Task, UUID> {
+    // Columnas devueltas por deleteByIdAndProjectId
+    interface DeletedTask {
+        String getStatus();
+        String getPriority();
+    }
+
+    // Columna del tablero: proyecto y estado
+    interface BoardColumn {
+        UUID getProjectId();
+        String getStatus();
+    }
+
+    // Columnas devueltas por lockForMove
+    interface MovedTask {
+        String getPreviousStatus();
+        String getPriority();
+    }
+
     Optional<Task> findByIdAndProjectId(UUID taskId, UUID projectId);
     List<Task> findAllByProject(Project project);
+
+    // El usuario asignado se trae en la misma consulta porque el mapper lo necesita para cada tarea
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.user WHERE t.project.id = :projectId")
+    List<Task> findAllWithUserByProjectId(@Param("projectId") UUID projectId);
+
+    // Borra y devuelve lo necesario para las estadísticas en una sola sentencia; vacío si la tarea no está en el proyecto
+    @Transactional
+    @Query(value = "DELETE FROM tasks WHERE id = :taskId AND project_id = :projectId RETURNING status, priority", nativeQuery = true)
+    Optional<DeletedTask> deleteByIdAndProjectId(@Param("taskId") UUID taskId, @Param("projectId") UUID projectId);
     List<Task> findAllByUser(User user);
     List<Task> findAllByUserAndProject(User user, Project project);
+
+    // Se recorre con un cursor; el usuario asignado es siempre el mismo, así que el JOIN FETCH evita consultas extra.
+    // Ordenado por proyecto para poder escribir cada grupo según llega
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT t FROM Task t JOIN FETCH t.user WHERE t.user.id = :userId ORDER BY t.project.id, t.dueDate")
+    Stream<Task> streamAllByUserId(@Param("userId") UUID userId);
+
+    // Cursor de solo avance para las respuestas en streaming; el usuario asignado puede ser nulo
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.user WHERE t.project.id = :projectId")
+    Stream<Task> streamAllByProjectId(@Param("projectId") UUID projectId);
+
+    // Huella del listado de tareas de un proyecto sin cargar entidades ni ordenar filas: número de filas,
+    // suma de versiones (cambia con cada edición) y XOR de los ids (cambia si se borra una tarea y se crea otra)
+    @Query(value = "SELECT count(*) || '-' || coalesce(sum(t.version), 0) || '-' || coalesce(bit_xor(hashtext(CAST(t.id AS text))), 0) " +
+            "FROM tasks t WHERE t.project_id = :projectId", nativeQuery = true)
+    String findVersionTagByProjectId(@Param("projectId") UUID projectId);
+    // Tablero: el índice (project_id, status, rank) sirve el filtro y el orden; las tareas sin rank van al final
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.user WHERE t.project.id = :projectId ORDER BY t.status, t.rank, t.id")
+    List<Task> findBoardByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.user WHERE t.project.id = :projectId AND t.status = :status ORDER BY t.rank, t.id")
+    List<Task> findBoardColumn(@Param("projectId") UUID projectId, @Param("status") TaskStatus status);
+
+    // Rank de una tarea de la columna; cadena vacía si aún no tiene, vacío si la tarea no está en la columna
+    @Query(value = "SELECT coalesce(rank, '') FROM tasks WHERE id = :taskId AND project_id = :projectId AND status = :status", nativeQuery = true)
+    Optional<String> findRankInColumn(@Param("taskId") UUID taskId, @Param("projectId") UUID projectId, @Param("status") String status);
+
+    // Vecinos de un rank dentro de la columna, sin contar la tarea que se mueve
+    @Query(value = "SELECT min(rank) FROM tasks WHERE project_id = :projectId AND status = :status AND rank > :rank AND id <> :taskId", nativeQuery = true)
+    String findNextRank(@Param("projectId") UUID projectId, @Param("status") String status, @Param("rank") String rank, @Param("taskId") UUID taskId);
+
+    @Query(value = "SELECT max(rank) FROM tasks WHERE project_id = :projectId AND status = :status AND rank < :rank AND id <> :taskId", nativeQuery = true)
+    String findPreviousRank(@Param("projectId") UUID projectId, @Param("status") String status, @Param("rank") String rank, @Param("taskId") UUID taskId);
+
+    // Último rank de la columna; si es el de la propia tarea, la nueva clave queda justo detrás y el orden no cambia
+    @Query(value = "SELECT max(rank) FROM tasks WHERE project_id = :projectId AND status = :status", nativeQuery = true)
+    String findLastRank(@Param("projectId") UUID projectId, @Param("status") String status);
+
+    // Bloquea la tarea que se va a mover y devuelve su estado actual para las estadísticas; vacío si no está en el proyecto.
+    // Con el bloqueo, un cambio de estado simultáneo espera y el estado anterior no puede quedar desfasado
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    @Query(value = "SELECT status AS \"previousStatus\", priority AS \"priority\" FROM tasks " +
+            "WHERE id = :taskId AND project_id = :projectId FOR UPDATE", nativeQuery = true)
+    Optional<MovedTask> lockForMove(@Param("taskId") UUID taskId, @Param("projectId") UUID projectId);
+
+    // Declara la tabla que modifica; sin ello Hibernate vacía toda la caché de segundo nivel en cada movimiento
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    @Query(value = "UPDATE tasks SET rank = :rank, status = :status, version = version + 1 " +
+            "WHERE id = :taskId AND project_id = :projectId", nativeQuery = true)
+    int moveTask(@Param("taskId") UUID taskId, @Param("projectId") UUID projectId,
+                 @Param("status") String status, @Param("rank") String rank);
+
+    // Columnas con tareas sin rank o con claves demasiado largas, para el rebalanceo periódico
+    @Query(value = "SELECT DISTINCT project_id AS \"projectId\", status AS \"status\" FROM tasks " +
+            "WHERE rank IS NULL OR length(rank) > :maxLength", nativeQuery = true)
+    List<BoardColumn> findColumnsToRebalance(@Param("maxLength") int maxLength);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM Task")
@@ -5,8 +5,10 @@ import com.example.demo.model.User;
 import com.example.demo.model.UserHasProjects;
 import com.example.demo.model.UserProjectId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -15,11 +17,21 @@ public interface UserHasProjectRepository extends JpaRepository<UserHasProjects,
     @Query("SELECT up.project FROM UserHasProjects up WHERE up.user.id = :userId")
     List<Project> findProjectsByUserId(@Param("userId") UUID userId);
 
-    @Query("SELECT up FROM UserHasProjects up WHERE up.project.id = :projectId")
+    @Query("SELECT up FROM UserHasProjects up JOIN FETCH up.project JOIN FETCH up.user WHERE up.user.id = :userId")
+    List<UserHasProjects> findAllWithProjectByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT up FROM UserHasProjects up JOIN FETCH up.user WHERE up.project.id = :projectId")
     List<UserHasProjects> findAllByProject(@Param("projectId") UUID projectId);
 
     @Query("SELECT up.project FROM UserHasProjects up WHERE up.user.id = :userId AND LOWER(up.project.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(up.project.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Project> findProjectsByNameOrDescription(@Param("keyword") String keyword, @Param("userId") UUID userId);
 
     void deleteAllByProjectId(UUID projectId);
+
+    // Borrado directo por clave; el número de filas indica si el usuario era miembro.
+    // Al ser JPQL, Hibernate invalida también las regiones de la caché L2 de esta tabla
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserHasProjects up WHERE up.id.userId = :userId AND up.id.projectId = :projectId")
+    int deleteMembership(@Param("userId") UUID userId, @Param("projectId") UUID projectId);
 }
@@ -15,6 +15,7 @@ import java.util.Optional;
 public interface UserHasUserRepository extends JpaRepository<UserHasUser, UserUserId> {
     List<UserHasUser> findAllByUser(User user);
     Optional<UserHasUser> findByUserAndProject(User user, Project project);
+    long countByUser(User user);
     @Modifying
     @Transactional
     @Query("DELETE FROM UserHasUser")
@@ -4,16 +4,23 @@ import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+    // Se ejecuta en cada petición autenticada; la caché de consultas guarda el id y la entidad sale de la caché L2
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT u FROM User u WHERE u.username = :term OR u.email = :term")
     Optional<User> findByUsernameOrEmail(@Param("term") String term);
     @Modifying
@@ -0,0 +1,145 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Límite global de peticiones en curso. Va antes que la cadena de seguridad (que ya consulta la base
+ * de datos) y, si no hay hueco tras una espera corta, responde 503 con {@code Retry-After} en lugar
+ * de dejar que las peticiones se acumulen esperando una conexión del pool.
+ * Con {@code max-concurrent-requests} a 0 no limita nada.
+ * <p>
+ * En las peticiones asíncronas ({@code StreamingResponseBody}, exportaciones NDJSON) el trabajo sigue
+ * después de que vuelva el primer dispatch, así que el permiso se devuelve al terminar la petición
+ * asíncrona y no antes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private final int maxConcurrentRequests;
+    private final Semaphore permits;
+    private final long queueTimeoutMillis;
+    private final long retryAfterSeconds;
+    private final HandlerExceptionResolver resolver;
+    private final Counter rejected;
+
+    public AdmissionControlFilter(
+            @Value("${app.admission.max-concurrent-requests:0}") int maxConcurrentRequests,
+            @Value("${app.admission.queue-timeout-ms:50}") long queueTimeoutMillis,
+            @Value("${app.admission.retry-after-seconds:1}") long retryAfterSeconds,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.permits = new Semaphore(Math.max(maxConcurrentRequests, 0));
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.resolver = resolver;
+        this.rejected = Counter.builder("app.admission.rejected")
+                .description("Requests shed because the concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("app.admission.in_flight", this, AdmissionControlFilter::inFlight)
+                .description("Requests currently admitted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return maxConcurrentRequests <= 0;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            resolver.resolveException(request, response, null,
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, retry later"));
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permits.release();
+            }
+        }
+    }
+
+    int inFlight() {
+        return maxConcurrentRequests <= 0 ? 0 : maxConcurrentRequests - permits.availablePermits();
+    }
+
+    // onError y onTimeout van seguidos de onComplete: el permiso se devuelve una sola vez
+    private class ReleaseOnCompletion implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Un nuevo startAsync quita los listeners; se vuelve a registrar para el siguiente ciclo
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.security;
+
+import com.example.demo.controller.exception.TooManyRequestsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BCrypt en un pool de hilos propio y acotado.
+ * <p>
+ * El hash se calcula en {@code threads} hilos dedicados con una cola de {@code queueCapacity}
+ * peticiones; cuando la cola está llena se rechaza al momento con {@link TooManyRequestsException}
+ * (429) en lugar de dejar que una avalancha de logins acapare la CPU de todos los endpoints.
+ * El hilo de la petición solo espera el resultado.
+ * <p>
+ * {@link #upgradeEncoding} indica si el hash guardado tiene un coste distinto del configurado,
+ * tanto mayor como menor, para poder ajustar el coste en los dos sentidos rehaciendo el hash al iniciar sesión.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long retryAfterSeconds) {
+        this(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity, retryAfterSeconds);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity, long retryAfterSeconds) {
+        this.delegate = delegate;
+        this.strength = strength;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = cost(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+
+    public ThreadPoolExecutor executor() {
+        return executor;
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // Coste de un hash "$2a$10$...", o -1 si no tiene ese formato
+    static int cost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(units)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException("Too many concurrent logins, retry later", retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
         logger.debug("Usuario encontrado en base de datos");
         if(passwordEncoder.matches(password, userDetails.getPassword())){
             logger.debug("Contraseña es correcta, inicio de sesión completado");
+            rehashIfNeeded(userDetails, password);
             return new UsernamePasswordAuthenticationToken(
                     userDetails,
                     password,
@@ -42,6 +43,19 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
         }
     }
 
+    // Si el coste de BCrypt configurado ha cambiado, se guarda un hash nuevo. Un fallo aquí no impide el login
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            userDetailsService.updatePassword(user, passwordEncoder.encode(password));
+            logger.debug("Hash de la contraseña actualizado al coste configurado");
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudo actualizar el hash de la contraseña de {}: {}", user.getUsername(), ex.getMessage());
+        }
+    }
+
     @Override
     public boolean supports(Class<?> authentication) {
         return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
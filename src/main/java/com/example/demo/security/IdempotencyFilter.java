@@ -0,0 +1,257 @@
+package com.example.demo.security;
+
+import com.example.demo.model.IdempotencyKey;
+import com.example.demo.model.User;
+import com.example.demo.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Soporte de la cabecera {@code Idempotency-Key} en los POST configurados en {@code app.idempotency.paths}.
+ * <p>
+ * La primera petición con una clave se ejecuta y, si responde 2xx, se guarda su respuesta (estado,
+ * cabeceras como {@code ETag} o {@code Location} y cuerpo). Con cualquier otro estado se suelta la clave
+ * para que el cliente pueda corregir y reintentar. Los reintentos con la misma clave y el mismo cuerpo
+ * reciben la respuesta guardada sin ejecutar el handler, con la cabecera {@code Idempotent-Replayed}.
+ * La misma clave con otro cuerpo responde 422 y, mientras la primera sigue en curso, 409.
+ * <p>
+ * El cuerpo se lee entero para calcular su hash, así que se limita a {@code max-body-bytes}: por
+ * encima se responde 413 sin leer el resto.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    // Cabeceras que no se guardan: las pone el contenedor, van aparte o no deben repetirse
+    private static final Set<String> SKIPPED_HEADERS = Set.of(HttpHeaders.CONTENT_TYPE.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.DATE.toLowerCase(), HttpHeaders.SET_COOKIE.toLowerCase(), REPLAYED_HEADER.toLowerCase());
+
+    private final IdempotencyService idempotencyService;
+    private final HandlerExceptionResolver resolver;
+    private final List<PathPattern> paths;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(
+            IdempotencyService idempotencyService,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver,
+            @Value("${app.idempotency.paths:}") List<String> paths,
+            @Value("${app.idempotency.max-body-bytes:1048576}") int maxBodyBytes
+    ) {
+        this.idempotencyService = idempotencyService;
+        this.resolver = resolver;
+        this.maxBodyBytes = maxBodyBytes;
+        this.paths = paths.stream()
+                .filter(path -> !path.isBlank())
+                .map(path -> PathPatternParser.defaultInstance.parse(path.trim()))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(pathWithinApplication(request));
+        return paths.stream().noneMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            // Sin usuario la petición acabará en 401; no hay nada que guardar
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST, HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+                ? null
+                : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with an " + HEADER + " are limited to " + maxBodyBytes + " bytes");
+            return;
+        }
+        IdempotencyService.Claim claim = idempotencyService.claim(user.getId(), request.getMethod(),
+                pathWithinApplication(request), key, body);
+        switch (claim.result()) {
+            case REPLAY -> replay(claim.stored(), response);
+            case IN_PROGRESS -> reject(request, response, HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still being processed");
+            case MISMATCH -> reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used with a different request");
+            case CLAIMED -> execute(new CachedBodyRequest(request, body), response, filterChain, claim.keyHash());
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String keyHash)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        ScheduledFuture<?> heartbeat = idempotencyService.keepClaimed(keyHash);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, captured);
+            heartbeat.cancel(false);
+            if (HttpStatusCode.valueOf(captured.getStatus()).is2xxSuccessful()) {
+                idempotencyService.complete(keyHash, captured.getStatus(), captured.getContentType(),
+                        encodeHeaders(captured), captured.getContentAsByteArray());
+                stored = true;
+            }
+        } finally {
+            heartbeat.cancel(false);
+            if (!stored) {
+                idempotencyService.release(keyHash);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private void replay(IdempotencyKey stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        decodeHeaders(stored.getHeaders(), response);
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.getBody() == null ? new byte[0] : stored.getBody();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // Una cabecera por línea; los valores de las cabeceras HTTP no pueden llevar saltos de línea
+    static String encodeHeaders(HttpServletResponse response) {
+        StringBuilder headers = new StringBuilder();
+        for (String name : new LinkedHashSet<>(response.getHeaderNames())) {
+            if (SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                continue;
+            }
+            for (String value : response.getHeaders(name)) {
+                headers.append(name).append(": ").append(value).append('\n');
+            }
+        }
+        return headers.isEmpty() ? null : headers.toString();
+    }
+
+    static void decodeHeaders(String headers, HttpServletResponse response) {
+        if (headers == null) {
+            return;
+        }
+        for (String line : headers.split("\n")) {
+            int separator = line.indexOf(": ");
+            if (separator > 0) {
+                response.addHeader(line.substring(0, separator), line.substring(separator + 2));
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message) {
+        resolver.resolveException(request, response, null, new ResponseStatusException(status, message));
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Petición cuyo cuerpo ya se ha leído para calcular su hash y se vuelve a servir desde memoria.
+     */
+    static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
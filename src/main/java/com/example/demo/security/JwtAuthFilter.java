@@ -1,10 +1,12 @@
 package com.example.demo.security;
 
 import com.example.demo.controller.responses.Response;
+import com.example.demo.metrics.HotPathMetrics;
 import com.example.demo.service.CustomUserDetailsService;
 import com.example.demo.service.TokenBlacklistService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.ExpiredJwtException;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -17,6 +19,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -33,17 +36,26 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private final CustomUserDetailsService userDetailsService;
     private final TokenBlacklistService blacklistService;
     private final HandlerExceptionResolver resolver;
+    private final HotPathMetrics metrics;
 
-    public JwtAuthFilter(JwtTokenUtil jwtTokenUtil, CustomUserDetailsService userDetailsService, TokenBlacklistService blacklistService, @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver) {
+    // Nombre del temporizador de cada paso del filtro (etiqueta step); se registra al volver de la cadena, con el endpoint ya resuelto
+    static final String TIMER = "app.security.jwt";
+
+    // Autenticación ya resuelta en esta petición; los despachos anidados (ERROR, ASYNC) la reutilizan
+    static final String AUTHENTICATION_ATTRIBUTE = JwtAuthFilter.class.getName() + ".AUTHENTICATION";
+
+    public JwtAuthFilter(JwtTokenUtil jwtTokenUtil, CustomUserDetailsService userDetailsService, TokenBlacklistService blacklistService, @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver, HotPathMetrics metrics) {
         this.jwtTokenUtil = jwtTokenUtil;
         this.userDetailsService = userDetailsService;
         this.blacklistService = blacklistService;
         this.resolver = resolver;
+        this.metrics = metrics;
     }
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
-    private String getJwtFromCookies(HttpServletRequest request) {
+    // Visible para el benchmark de JMH (src/jmh/java)
+    String getJwtFromCookies(HttpServletRequest request) {
         if (request.getCookies() == null) return null;
         for (Cookie cookie : request.getCookies()) {
             if (cookie.getMaxAge() == 0) return null;
@@ -64,12 +76,38 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
     }
 
+    // Las rutas públicas no necesitan usuario: ni consulta a la lista negra ni carga del usuario
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getDispatcherType() == DispatcherType.REQUEST && PublicPaths.matches(request);
+    }
+
+    // Se entra también en los despachos anidados, pero solo para restaurar la autenticación guardada
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            Authentication cached = (Authentication) request.getAttribute(AUTHENTICATION_ATTRIBUTE);
+            if (cached != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                SecurityContextHolder.getContext().setAuthentication(cached);
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         final String jwt = getJwtFromCookies(request);
         logger.debug(request.getRequestURI());
 
@@ -81,21 +119,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         try {
             // Verificar si el token está en la lista negra
-            if (blacklistService.isTokenBlackListed(jwt)) {
+            if (metrics.timeDeferred(request, TIMER, () -> blacklistService.isTokenBlackListed(jwt), "step", "blacklist")) {
                 sendError(response, HttpStatus.UNAUTHORIZED, "TOKEN_REVOKED", "Token inválido por logout previo");
                 return; // corta aquí
             }
 
             // Extraer y validar usuario
-            final String username = jwtTokenUtil.extractUsername(jwt);
+            final String username = metrics.timeDeferred(request, TIMER, () -> jwtTokenUtil.extractUsername(jwt), "step", "parse");
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = metrics.timeDeferred(request, TIMER, () -> this.userDetailsService.loadUserByUsername(username), "step", "user_load");
 
-                if (jwtTokenUtil.validateToken(jwt, userDetails)) {
+                if (metrics.timeDeferred(request, TIMER, () -> jwtTokenUtil.validateToken(jwt, userDetails), "step", "validate")) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    request.setAttribute(AUTHENTICATION_ATTRIBUTE, authToken);
                 }
             }
             // Continuar con la cadena normalmente
@@ -107,6 +146,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             this.logger.debug(ex.getMessage());
             this.resolver.resolveException(request,response, null, ex);
             filterChain.doFilter(request, response);
+        } finally {
+            // El handler ya está resuelto: las medidas del filtro se etiquetan con su endpoint
+            metrics.recordDeferred(request);
         }
     }
 
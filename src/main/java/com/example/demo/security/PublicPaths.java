@@ -0,0 +1,49 @@
+package com.example.demo.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rutas accesibles sin autenticación. La misma lista se usa en {@code SecurityConfig} para
+ * permitirlas y en {@link JwtAuthFilter} para no procesar el JWT en ellas.
+ */
+public final class PublicPaths {
+    public static final String[] PATTERNS = {
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/swagger-resources/**",
+            "/webjars/**",
+            "/favicon.ico",
+            "/api/auth/login",
+            "/api/auth/register",
+            "/api/auth/refresh",
+            // Solo el seed de ejemplo; /synthetic y /bulk vacían o llenan la base entera y exigen sesión
+            "/api/dev/seed",
+            "/error",
+            // Solo accesibles en el puerto de gestión (management.server.port)
+            "/actuator/health",
+            "/actuator/prometheus"
+    };
+
+    private static final List<PathPattern> PARSED = Arrays.stream(PATTERNS)
+            .map(PathPatternParser.defaultInstance::parse)
+            .toList();
+
+    private PublicPaths() {
+    }
+
+    public static boolean matches(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (PathPattern pattern : PARSED) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
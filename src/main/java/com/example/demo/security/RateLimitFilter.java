@@ -0,0 +1,76 @@
+package com.example.demo.security;
+
+import com.example.demo.controller.exception.TooManyRequestsException;
+import com.example.demo.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Aplica {@link RateLimiter} a cada petición. Va justo después de {@link JwtAuthFilter}, así que la
+ * clave es el id del usuario autenticado; las peticiones anónimas se agrupan por IP.
+ * Al superar el presupuesto responde 429 con {@code Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final HandlerExceptionResolver resolver;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.resolver = resolver;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("app.rate_limit.buckets", rateLimiter, RateLimiter::size)
+                .description("Rate limit buckets currently tracked")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(clientKey(request), request.getMethod(), path);
+        if (!decision.allowed()) {
+            Counter.builder("app.rate_limit.rejected")
+                    .tag("budget", decision.budget())
+                    .register(meterRegistry)
+                    .increment();
+            resolver.resolveException(request, response, null,
+                    new TooManyRequestsException("Rate limit exceeded, retry later", decision.retryAfterSeconds()));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId().toString();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.security;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+/**
+ * Presupuestos de peticiones por usuario ({@code app.rate-limit.*}).
+ * <p>
+ * Cada usuario tiene un cubo por presupuesto: el de la primera entrada de {@code endpoints} que
+ * coincide con la petición o, si ninguna coincide, el presupuesto por defecto. Las peticiones anónimas
+ * se agrupan por {@code getRemoteAddr()}: detrás de un balanceador es la IP del proxy, así que todos los
+ * anónimos comparten cubo salvo que se configure {@code server.forward-headers-strategy}.
+ * Capacidades y ritmos tienen que ser positivos: con 0 el cubo no se rellenaría nunca y la aplicación
+ * no arranca.
+ *
+ * @param capacity         peticiones que se pueden hacer de golpe con el cubo lleno
+ * @param refillPerSecond  peticiones por segundo sostenidas
+ */
+@Validated
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200") @Positive long capacity,
+        @DefaultValue("100") @Positive double refillPerSecond,
+        List<@Valid Endpoint> endpoints
+) {
+    public RateLimitProperties {
+        endpoints = endpoints == null ? List.of() : List.copyOf(endpoints);
+    }
+
+    /**
+     * Presupuesto propio de una ruta. {@code pattern} usa la sintaxis de {@code PathPattern}
+     * y {@code method} es opcional (todas las peticiones si no se indica).
+     */
+    public record Endpoint(@NotBlank String pattern, String method, @Positive long capacity, @Positive double refillPerSecond) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.security;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets en memoria por cliente y presupuesto, sin bloqueos.
+ * <p>
+ * Cada cubo es un único {@link AtomicLong} con el instante teórico de llegada de la siguiente petición
+ * (GCRA, equivalente a un token bucket): consumir es un compareAndSet. Un cubo cuyo instante ya ha
+ * pasado está lleno y es igual que uno nuevo, así que {@link #evictIdle()} lo puede quitar del mapa.
+ */
+public class RateLimiter {
+    static final String DEFAULT_BUDGET = "default";
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Rule defaultRule;
+    private final ConcurrentHashMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        for (RateLimitProperties.Endpoint endpoint : properties.endpoints()) {
+            String name = endpoint.method() == null ? endpoint.pattern() : endpoint.method() + " " + endpoint.pattern();
+            rules.add(new Rule(name, endpoint.method(), PathPatternParser.defaultInstance.parse(endpoint.pattern()),
+                    endpoint.capacity(), endpoint.refillPerSecond()));
+        }
+        this.defaultRule = new Rule(DEFAULT_BUDGET, null, null, properties.capacity(), properties.refillPerSecond());
+    }
+
+    /**
+     * Resultado de {@link #tryAcquire}: si se rechaza, {@code retryAfterNanos} es lo que falta para que
+     * la siguiente petición quepa en el cubo.
+     */
+    public record Decision(boolean allowed, String budget, long retryAfterNanos) {
+        public long retryAfterSeconds() {
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+    }
+
+    public Decision tryAcquire(String client, String method, String path) {
+        Rule rule = resolve(method, PathContainer.parsePath(path));
+        long now = nanoTime.getAsLong();
+        Bucket bucket = buckets.computeIfAbsent(new BucketKey(client, rule.name()), key -> new Bucket(now));
+        long wait = bucket.tryAcquire(now, rule.intervalNanos(), rule.toleranceNanos());
+        return new Decision(wait == 0, rule.name(), wait);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = nanoTime.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private Rule resolve(String method, PathContainer path) {
+        for (Rule rule : rules) {
+            if ((rule.method() == null || rule.method().equalsIgnoreCase(method)) && rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    private record BucketKey(String client, String budget) {
+    }
+
+    private record Rule(String name, String method, PathPattern pattern, long intervalNanos, long toleranceNanos) {
+        Rule(String name, String method, PathPattern pattern, long capacity, double refillPerSecond) {
+            this(name, method, pattern, intervalNanos(refillPerSecond), (Math.max(1, capacity) - 1) * intervalNanos(refillPerSecond));
+        }
+
+        private static long intervalNanos(double refillPerSecond) {
+            return (long) Math.ceil(TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        }
+    }
+
+    static final class Bucket {
+        private final AtomicLong theoreticalArrival;
+
+        Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        // 0 si se admite la petición; si no, nanosegundos hasta que quepa
+        long tryAcquire(long now, long interval, long tolerance) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long start = current - now > 0 ? current : now;
+                long wait = start - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, start + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            return theoreticalArrival.get() - now <= 0;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.demo.security.aspect;
 
 import com.example.demo.controller.anotations.projects.RequireProjectRole;
+import com.example.demo.metrics.HotPathMetrics;
 import com.example.demo.model.ProjectRole;
 import com.example.demo.model.User;
 import com.example.demo.model.UserHasProjects;
 import com.example.demo.service.ProjectService;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -28,13 +30,27 @@ import static org.springframework.http.HttpStatus.FORBIDDEN;
 public class RequireProjectRoleAspect {
     private final Logger logger = LoggerFactory.getLogger(RequireProjectRoleAspect.class);
     private final ProjectService projectService;
+    private final HotPathMetrics metrics;
 
-    public RequireProjectRoleAspect(ProjectService projectService) {
+    public RequireProjectRoleAspect(ProjectService projectService, HotPathMetrics metrics) {
         this.projectService = projectService;
+        this.metrics = metrics;
     }
 
     @Before("@annotation(com.example.demo.controller.anotations.projects.RequireProjectRole)")
     public void checkProjectRole(JoinPoint joinPoint) {
+        // Los aspectos no pasan por proxies, así que el tiempo se mide aquí mismo
+        Timer.Sample sample = metrics.start();
+        String outcome = "denied";
+        try {
+            verifyProjectRole(joinPoint);
+            outcome = "granted";
+        } finally {
+            metrics.stop(sample, "app.security.project_role", "outcome", outcome);
+        }
+    }
+
+    private void verifyProjectRole(JoinPoint joinPoint) {
         this.logger.debug("Aspect activado");
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         RequireProjectRole annotation = signature.getMethod().getAnnotation(RequireProjectRole.class);
@@ -1,42 +1,120 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Comment;
+import com.example.demo.model.OutboxEventType;
 import com.example.demo.model.Task;
 import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.FieldProjection;
+import com.example.demo.repository.FieldProjectionRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class CommentService {
 
     private final CommentRepository repository;
+    private final OutboxService outboxService;
+    private final EntityManager entityManager;
+    private final FieldProjectionRepository projectionRepository;
 
-    public CommentService(CommentRepository repository){
+    public CommentService(CommentRepository repository, OutboxService outboxService, EntityManager entityManager,
+                          FieldProjectionRepository projectionRepository){
         this.repository = repository;
+        this.outboxService = outboxService;
+        this.entityManager = entityManager;
+        this.projectionRepository = projectionRepository;
     }
 
+    @Transactional
     public Comment saveComment(Comment comment){
-        return repository.save(comment);
+        OutboxEventType type = comment.getId() == null ? OutboxEventType.COMMENT_CREATED : OutboxEventType.COMMENT_UPDATED;
+        Comment saved = repository.save(comment);
+        outboxService.record(type, saved.getId(), commentPayload(saved));
+        return saved;
     }
 
     public Comment findCommentById(UUID commentId){
         return this.repository.findById(commentId).orElseThrow();
     }
 
+    @Transactional
     public void deleteComment(Comment comment){
         repository.delete(comment);
+        outboxService.record(OutboxEventType.COMMENT_DELETED, comment.getId(), commentPayload(comment));
     }
 
+    @Transactional
     public void deleteComment(UUID commentId){
         repository.deleteById(commentId);
+        outboxService.record(OutboxEventType.COMMENT_DELETED, commentId, Map.of("commentId", commentId));
+    }
+
+    /**
+     * Deletes a comment of a task with a single statement.
+     *
+     * @throws java.util.NoSuchElementException if the comment does not exist in that task of that project
+     */
+    @Transactional
+    public void deleteComment(UUID commentId, UUID taskId, UUID projectId){
+        CommentRepository.DeletedComment deleted = repository.deleteByIdAndTask(commentId, taskId, projectId).orElseThrow();
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("commentId", commentId);
+        payload.put("taskId", taskId);
+        payload.put("authorId", deleted.getAuthor());
+        outboxService.record(OutboxEventType.COMMENT_DELETED, commentId, payload);
+    }
+
+    /**
+     * Aggregate version of the comments of a task, or empty if the task does not belong to the project.
+     */
+    public Optional<String> getCommentsVersionTag(UUID taskId, UUID projectId) {
+        return repository.findVersionTagByTask(taskId, projectId);
     }
 
     public List<Comment> getAllCommentsByTask(Task task){
         return repository.findAllByTask(task);
     }
 
+    /**
+     * Comments of a task with only the requested fields ({@code fields=} query parameter), oldest first.
+     */
+    public List<Map<String, Object>> getCommentFieldsByTask(UUID taskId, UUID projectId, String fields){
+        return projectionRepository.find(FieldProjection.COMMENT, FieldProjection.COMMENT.select(fields),
+                Map.of("taskId", taskId, "projectId", projectId), "c.createdAt");
+    }
+
+    /**
+     * Walks the comments of a task with a forward-only cursor, detaching each one after the consumer
+     * returns so memory stays flat for long threads.
+     */
+    @Transactional(readOnly = true)
+    public void forEachCommentOfTask(UUID taskId, UUID projectId, Consumer<Comment> consumer){
+        try (Stream<Comment> comments = repository.streamAllByTask(taskId, projectId)) {
+            comments.forEach(comment -> {
+                consumer.accept(comment);
+                entityManager.detach(comment);
+            });
+        }
+    }
+
     public void deleteAll() {
         repository.deleteAll();
     }
+
+    private static Map<String, Object> commentPayload(Comment comment) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("commentId", comment.getId());
+        payload.put("taskId", comment.getTask() == null ? null : comment.getTask().getId());
+        payload.put("authorId", comment.getUser() == null ? null : comment.getUser().getId());
+        return payload;
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically deletes expired idempotency keys and their stored responses.
+ */
+@Component
+public class IdempotencyKeyCleaner {
+    private final Logger logger = LoggerFactory.getLogger(IdempotencyKeyCleaner.class);
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyKeyCleaner(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.cleanup-interval-ms:600000}", fixedDelayString = "${app.idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpired() {
+        int deleted = idempotencyService.deleteExpired();
+        logger.debug("Deleted {} expired idempotency keys", deleted);
+    }
+}
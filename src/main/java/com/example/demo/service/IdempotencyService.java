@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.model.IdempotencyKey;
+import com.example.demo.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Almacén de respuestas para la cabecera {@code Idempotency-Key}. Solo toca la tabla
+ * {@code idempotency_keys}: un reintento se resuelve sin pasar por el handler ni por las tablas del dominio.
+ * <p>
+ * Una reserva sin respuesta desde hace {@code stale-after-ms} se da por abandonada y un reintento la puede
+ * tomar. Mientras el handler sigue en curso la reserva se renueva cada tercio de ese tiempo, así que una
+ * petición lenta no se ejecuta dos veces.
+ */
+@Service
+public class IdempotencyService implements AutoCloseable {
+    private final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private final IdempotencyKeyRepository repository;
+    private final Duration ttl;
+    private final Duration staleAfter;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("idempotency-heartbeat").daemon().factory());
+
+    public IdempotencyService(
+            IdempotencyKeyRepository repository,
+            @Value("${app.idempotency.ttl-ms:86400000}") long ttlMillis,
+            @Value("${app.idempotency.stale-after-ms:60000}") long staleAfterMillis
+    ) {
+        this.repository = repository;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.staleAfter = Duration.ofMillis(staleAfterMillis);
+    }
+
+    public enum ClaimResult {
+        // La petición es la primera con esta clave y debe ejecutarse
+        CLAIMED,
+        // Ya hay respuesta guardada para la misma petición
+        REPLAY,
+        // Otra petición con la misma clave todavía se está ejecutando
+        IN_PROGRESS,
+        // La clave ya se usó con otro cuerpo
+        MISMATCH
+    }
+
+    public record Claim(ClaimResult result, String keyHash, IdempotencyKey stored) {
+    }
+
+    public Claim claim(UUID userId, String method, String path, String key, byte[] body) {
+        String keyHash = sha256((userId + "\n" + method + " " + path + "\n" + key).getBytes(StandardCharsets.UTF_8));
+        String requestHash = sha256(body);
+        Instant now = Instant.now();
+        if (repository.claim(keyHash, requestHash, now, now.minus(staleAfter), now.plus(ttl)) == 1) {
+            return new Claim(ClaimResult.CLAIMED, keyHash, null);
+        }
+        Optional<IdempotencyKey> stored = repository.findById(keyHash);
+        if (stored.isEmpty()) {
+            // La otra petición falló y soltó la clave justo ahora: se intenta una vez más
+            boolean claimed = repository.claim(keyHash, requestHash, now, now.minus(staleAfter), now.plus(ttl)) == 1;
+            return new Claim(claimed ? ClaimResult.CLAIMED : ClaimResult.IN_PROGRESS, keyHash, null);
+        }
+        IdempotencyKey existing = stored.get();
+        if (!existing.getRequestHash().equals(requestHash)) {
+            return new Claim(ClaimResult.MISMATCH, keyHash, existing);
+        }
+        if (existing.getStatus() == null) {
+            return new Claim(ClaimResult.IN_PROGRESS, keyHash, existing);
+        }
+        return new Claim(ClaimResult.REPLAY, keyHash, existing);
+    }
+
+    // Renueva la reserva hasta que se cancele la tarea devuelta, al terminar la petición
+    public ScheduledFuture<?> keepClaimed(String keyHash) {
+        long period = Math.max(1, staleAfter.toMillis() / 3);
+        return heartbeats.scheduleAtFixedRate(() -> {
+            try {
+                repository.touch(keyHash, Instant.now());
+            } catch (RuntimeException ex) {
+                logger.warn("No se pudo renovar la clave de idempotencia {}", keyHash, ex);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void complete(String keyHash, int status, String contentType, String headers, byte[] body) {
+        repository.complete(keyHash, status, contentType, headers, body);
+    }
+
+    // La petición no terminó con una respuesta que se pueda repetir: el cliente puede reintentar con la misma clave
+    public void release(String keyHash) {
+        repository.release(keyHash);
+    }
+
+    public int deleteExpired() {
+        return repository.deleteExpired(Instant.now());
+    }
+
+    @Override
+    public void close() {
+        heartbeats.shutdownNow();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
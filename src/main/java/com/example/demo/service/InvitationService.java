@@ -1,39 +1,62 @@
 package com.example.demo.service;
 
+import com.example.demo.model.OutboxEventType;
 import com.example.demo.model.Project;
 import com.example.demo.model.User;
 import com.example.demo.model.UserHasUser;
 import com.example.demo.model.UserUserId;
 import com.example.demo.repository.UserHasUserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class InvitationService {
     private final UserHasUserRepository repository;
+    private final OutboxService outboxService;
 
-    public InvitationService(UserHasUserRepository repository){
+    public InvitationService(UserHasUserRepository repository, OutboxService outboxService){
         this.repository = repository;
+        this.outboxService = outboxService;
     }
 
     public List<UserHasUser> getAllInvitationsByUser(User user){
         return repository.findAllByUser(user);
     }
 
+    public long countPendingInvitations(User user){
+        return repository.countByUser(user);
+    }
+
     public UserHasUser findByReceiverAndProject(User user, Project project){
         return this.repository.findByUserAndProject(user, project).orElseThrow();
     }
     
+    @Transactional
     public UserHasUser sendInvitation(UserHasUser invitation){
-        return repository.save(invitation);
+        UserHasUser saved = repository.save(invitation);
+        outboxService.record(OutboxEventType.INVITATION_SENT, saved.getProject().getId(), invitationPayload(saved));
+        return saved;
     }
 
+    @Transactional
     public void deleteInvitation(UserHasUser invitation){
         repository.delete(invitation);
+        outboxService.record(OutboxEventType.INVITATION_REMOVED, invitation.getProject().getId(), invitationPayload(invitation));
     }
 
     public void deleteAll() {
         repository.deleteAll();
     }
+
+    private static Map<String, Object> invitationPayload(UserHasUser invitation) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("projectId", invitation.getProject().getId());
+        payload.put("senderId", invitation.getSender().getId());
+        payload.put("receiverId", invitation.getUser().getId());
+        return payload;
+    }
 }
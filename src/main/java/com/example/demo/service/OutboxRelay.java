@@ -0,0 +1,37 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker that periodically drains the outbox table into the configured {@link OutboxSink}. Several
+ * instances can run it at the same time: each batch is claimed with {@code FOR UPDATE SKIP LOCKED}.
+ */
+@Component
+public class OutboxRelay {
+    private final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private final OutboxService outboxService;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    public OutboxRelay(OutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        int delivered;
+        int total = 0;
+        do {
+            delivered = outboxService.relayBatch(batchSize);
+            total += delivered;
+        } while (delivered == batchSize);
+        if (total > 0) {
+            logger.debug("Relayed {} outbox events", total);
+        }
+    }
+}
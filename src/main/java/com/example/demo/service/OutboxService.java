@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OutboxEvent;
+import com.example.demo.model.OutboxEventType;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class OutboxService {
+    private final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+    private final OutboxEventRepository repository;
+    private final ObjectProvider<OutboxSink> sink;
+    private final ObjectMapper objectMapper;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    public OutboxService(OutboxEventRepository repository, ObjectProvider<OutboxSink> sink, ObjectMapper objectMapper,
+                         @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                         @Value("${app.outbox.retry-backoff-ms:5000}") long retryBackoffMs) {
+        this.repository = repository;
+        this.sink = sink;
+        this.objectMapper = objectMapper;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /**
+     * Registers a domain event. Must run inside the transaction that modifies the entity,
+     * so the event is stored if and only if the change is committed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, UUID aggregateId, Map<String, Object> payload) {
+        try {
+            repository.save(new OutboxEvent(type, aggregateId, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+
+    /**
+     * Locks the next batch of pending events and hands each one to the {@link OutboxSink}, inside the
+     * batch transaction so delivery never needs a second connection while the rows are locked. Only
+     * acknowledged events are removed; an event the sink rejects is retried later with a growing delay
+     * and, after {@code app.outbox.max-attempts}, is left in the table as a dead letter so it no longer
+     * holds back the events behind it. Without a sink nothing is relayed and the events are kept.
+     *
+     * @return number of events processed, delivered or not
+     */
+    @Transactional
+    public int relayBatch(int batchSize) {
+        OutboxSink target = sink.getIfAvailable();
+        if (target == null) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = repository.lockNextBatch(batchSize, now);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> delivered = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                target.deliver(event);
+                delivered.add(event);
+            } catch (RuntimeException e) {
+                event.recordFailure(e, now, maxAttempts, retryBackoffMs);
+                logger.warn("Outbox event {} ({}) failed, attempt {}/{}", event.getId(), event.getEventType(),
+                        event.getAttempts(), maxAttempts, e);
+            }
+        }
+        repository.deleteAllInBatch(delivered);
+        return batch.size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OutboxEvent;
+
+/**
+ * Destination of the events stored in the outbox.
+ * <p>
+ * {@link #deliver} must return only once the receiver has acknowledged the event: the relay deletes the
+ * event right after. Throwing leaves it in the table to be retried. Delivery is at least once, so
+ * receivers should use the event id to drop duplicates.
+ */
+public interface OutboxSink {
+    void deliver(OutboxEvent event);
+}
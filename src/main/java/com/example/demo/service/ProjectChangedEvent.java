@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link ProjectService} whenever the tasks or members of a project change.
+ * A null project id means that every project may have changed (bulk deletes).
+ */
+public record ProjectChangedEvent(UUID projectId) {
+
+    public static ProjectChangedEvent all() {
+        return new ProjectChangedEvent(null);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache of serialized JSON responses of the hottest per-project reads. A hit answers from memory
+ * without touching JPA, MapStruct or Jackson; only the project role check still runs.
+ * <p>
+ * The cache is bounded by the total size of the stored bodies and evicts the least recently used entry.
+ * Entries are dropped after the commit of any write that goes through {@link ProjectService}. A read
+ * that started before the write cannot store its now stale body afterwards: every project has a
+ * generation number, and the body is only stored if the generation has not changed since the read began.
+ * <p>
+ * That invalidation is local, so writes made on another instance or outside the services are caught
+ * differently: an entry with a version tag is only served while the tag still matches the database, and
+ * every entry expires after {@code app.response-cache.ttl-ms}, which bounds how long one without a tag
+ * can be stale.
+ */
+@Component
+public class ProjectResponseCache {
+
+    public enum View { TASKS, MEMBERS }
+
+    private record Key(UUID projectId, View view) {}
+
+    private record Entry(byte[] body, String eTag, long expiresAtNanos) {
+        long weight() {
+            return body.length + eTag.length() + 64L;
+        }
+    }
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    // Generaciones repartidas en bandas fijas: memoria acotada aunque haya millones de proyectos
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private long bytes;
+
+    public ProjectResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${app.response-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${app.response-cache.max-entry-bytes:2097152}") long maxEntryBytes,
+            @Value("${app.response-cache.ttl-ms:10000}") long ttlMillis
+    ) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Only plain JSON responses are cached; clients asking for Smile or CBOR, or for something
+     * the JSON body cannot satisfy, take the normal path.
+     */
+    public boolean accepts(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (!StringUtils.hasText(accept)) {
+            return true;
+        }
+        List<MediaType> types = MediaType.parseMediaTypes(accept);
+        return types.stream().noneMatch(type -> type.equalsTypeAndSubtype(SMILE) || type.equalsTypeAndSubtype(CBOR))
+                && types.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Answers a read from the cache, or loads, serializes and stores it.
+     *
+     * @param versionTag cheap aggregate version used as ETag and checked on every hit, or null to use a
+     *                   hash of the body and rely on the TTL
+     * @param loader     builds the response body on a miss
+     * @return the response, or null when the request was answered with 304 Not Modified
+     */
+    public ResponseEntity<byte[]> serve(UUID projectId, View view, WebRequest request,
+                                        Supplier<String> versionTag, Supplier<?> loader) {
+        Key key = new Key(projectId, view);
+        Entry entry = get(key);
+        if (entry != null && versionTag == null) {
+            return request.checkNotModified(entry.eTag()) ? null : ok(entry);
+        }
+
+        long generation = generations.get(stripe(projectId));
+        String tag = versionTag == null ? null : versionTag.get();
+        // Si la versión ha cambiado, la escritura vino de otro nodo o no pasó por los servicios
+        if (entry != null && entry.eTag().equals(tag)) {
+            return request.checkNotModified(entry.eTag()) ? null : ok(entry);
+        }
+        if (tag != null && request.checkNotModified(tag)) {
+            return null;
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(loader.get());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        entry = new Entry(body, tag != null ? tag : DigestUtils.md5DigestAsHex(body), System.nanoTime() + ttlNanos);
+        put(key, entry, generation);
+        if (tag == null && request.checkNotModified(entry.eTag())) {
+            return null;
+        }
+        return ok(entry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (event.projectId() == null) {
+            invalidateAll();
+        } else {
+            invalidate(event.projectId());
+        }
+    }
+
+    public synchronized void invalidate(UUID projectId) {
+        generations.incrementAndGet(stripe(projectId));
+        for (View view : View.values()) {
+            Entry removed = entries.remove(new Key(projectId, view));
+            if (removed != null) {
+                bytes -= removed.weight();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.clear();
+        bytes = 0;
+    }
+
+    private synchronized Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            entries.remove(key);
+            bytes -= entry.weight();
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void put(Key key, Entry entry, long generation) {
+        if (entry.weight() > maxEntryBytes || generations.get(stripe(key.projectId())) != generation) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        bytes += entry.weight() - (previous == null ? 0 : previous.weight());
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    private static int stripe(UUID projectId) {
+        return projectId.hashCode() & (GENERATION_STRIPES - 1);
+    }
+
+    private static ResponseEntity<byte[]> ok(Entry entry) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.body());
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.demo.service;
 
 import com.example.demo.model.*;
+import com.example.demo.repository.FieldProjection;
+import com.example.demo.repository.FieldProjectionRepository;
 import com.example.demo.repository.ProjectRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserHasProjectRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,21 +22,42 @@ public class ProjectService {
     private final TaskRepository taskRepository;
     private final ProjectRepository repository;
     private final UserHasProjectRepository userHasProjectRepository;
+    private final OutboxService outboxService;
+    private final ProjectStatsService statsService;
+    private final FieldProjectionRepository projectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskRankService rankService;
 
-    public ProjectService(ProjectRepository repository, UserHasProjectRepository userHasProjectRepository, TaskRepository taskRepository) {
+    public ProjectService(ProjectRepository repository, UserHasProjectRepository userHasProjectRepository, TaskRepository taskRepository, OutboxService outboxService, ProjectStatsService statsService, FieldProjectionRepository projectionRepository, ApplicationEventPublisher eventPublisher, TaskRankService rankService) {
         this.repository = repository;
         this.taskRepository = taskRepository;
         this.userHasProjectRepository = userHasProjectRepository;
+        this.outboxService = outboxService;
+        this.statsService = statsService;
+        this.projectionRepository = projectionRepository;
+        this.eventPublisher = eventPublisher;
+        this.rankService = rankService;
     }
 
+    @Transactional
     public UserHasProjects addUserToProject(UserHasProjects relation) {
-        return userHasProjectRepository.save(relation);
+        UserHasProjects saved = userHasProjectRepository.save(relation);
+        outboxService.record(OutboxEventType.MEMBER_ADDED, saved.getProject().getId(), memberPayload(saved.getUser(), saved.getProject(), saved.getRole()));
+        eventPublisher.publishEvent(new ProjectChangedEvent(saved.getProject().getId()));
+        return saved;
     }
 
-    //Deletes relation between user and project, and unassign the tasks they had.
-    public void kickUserFromProject(User user, Project project) {
-        userHasProjectRepository.findById(new UserProjectId(user.getId(), project.getId())).ifPresent(userHasProjectRepository::delete);
-
+    //Deletes relation between user and project in a single statement; NoSuchElementException if the user was not a member.
+    @Transactional
+    public void kickUserFromProject(UUID userId, UUID projectId) {
+        if (userHasProjectRepository.deleteMembership(userId, projectId) == 0) {
+            throw new NoSuchElementException("User is not a member of the project");
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("projectId", projectId);
+        payload.put("userId", userId);
+        outboxService.record(OutboxEventType.MEMBER_REMOVED, projectId, payload);
+        eventPublisher.publishEvent(new ProjectChangedEvent(projectId));
     }
 
     public UserHasProjects getRelation(UserProjectId relationId){
@@ -43,20 +69,60 @@ public class ProjectService {
         return userHasProjectRepository.findProjectsByUserId(userId);
     }
 
+    //Get all the memberships of a user, with their projects, in a single query
+    public List<UserHasProjects> getAllRelationsByUser(UUID userId) {
+        return userHasProjectRepository.findAllWithProjectByUserId(userId);
+    }
+
+    //Projects of a user with only the requested fields (fields= query parameter); the role comes from the membership
+    public List<Map<String, Object>> getProjectFieldsByUser(UUID userId, String fields) {
+        return projectionRepository.find(FieldProjection.PROJECT, FieldProjection.PROJECT.select(fields), Map.of("userId", userId), null);
+    }
+
     public Project getOneById(UUID projectId)throws NoSuchElementException {
         return this.repository.findById(projectId).orElseThrow();
     }
 
+    //Reference without a query, for callers that already know the project exists (e.g. checked by the role aspect)
+    public Project getReference(UUID projectId) {
+        return this.repository.getReferenceById(projectId);
+    }
+
     public List<Project> getOneByQuery(String query, UUID userId){
         return this.userHasProjectRepository.findProjectsByNameOrDescription(query, userId);
     }
 
-    public List<Task> getAllTasksByProject(Project project){
-        return this.taskRepository.findAllByProject(project);
+    public List<Task> getAllTasksByProject(UUID projectId){
+        return this.taskRepository.findAllWithUserByProjectId(projectId);
     }
 
+    //Board order: tasks of the project (or of one status column) sorted by rank, using the (project_id, status, rank) index
+    public List<Task> getBoardTasks(UUID projectId, TaskStatus status){
+        return status == null
+                ? this.taskRepository.findBoardByProjectId(projectId)
+                : this.taskRepository.findBoardColumn(projectId, status);
+    }
+
+    @Transactional
     public Task saveTask(Task task){
-        return this.taskRepository.save(task);
+        // Las tareas nuevas y las que cambian de columna se colocan al final de su columna
+        if (task.getStatus() != task.getPersistedStatus()) {
+            task.setRank(rankService.rankAtEnd(task.getProject().getId(), task.getStatus()));
+        }
+        OutboxEventType type = task.getId() == null ? OutboxEventType.TASK_CREATED : OutboxEventType.TASK_UPDATED;
+        Task saved = this.taskRepository.save(task);
+        statsService.onTaskSaved(saved);
+        outboxService.record(type, saved.getId(), TaskService.taskPayload(saved));
+        eventPublisher.publishEvent(new ProjectChangedEvent(saved.getProject().getId()));
+        return saved;
+    }
+
+    /**
+     * Aggregate version of the project's task list, computed in a single query.
+     * Used as ETag so unchanged lists can be answered with 304 without loading any entity.
+     */
+    public String getTasksVersionTag(UUID projectId) {
+        return this.taskRepository.findVersionTagByProjectId(projectId);
     }
 
     public Task findTaskById(UUID taskId, UUID projectId){
@@ -75,27 +141,62 @@ public class ProjectService {
         return this.userHasProjectRepository.findAllByProject(projectId);
     }
 
+    @Transactional
     public Project saveProject(Project project) {
-        return repository.save(project);
+        OutboxEventType type = project.getId() == null ? OutboxEventType.PROJECT_CREATED : OutboxEventType.PROJECT_UPDATED;
+        Project saved = repository.save(project);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("projectId", saved.getId());
+        payload.put("name", saved.getName());
+        outboxService.record(type, saved.getId(), payload);
+        eventPublisher.publishEvent(new ProjectChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Transactional
     public void deleteProject(Project project) {
         this.userHasProjectRepository.deleteAllByProjectId(project.getId());
         this.repository.deleteById(project.getId());
+        outboxService.record(OutboxEventType.PROJECT_DELETED, project.getId(), Map.of("projectId", project.getId()));
+        eventPublisher.publishEvent(new ProjectChangedEvent(project.getId()));
     }
 
     @Transactional
     public void deleteTask(Task task){
         this.taskRepository.delete(task);
+        TaskStatus status = task.getPersistedStatus() == null ? task.getStatus() : task.getPersistedStatus();
+        TaskPriority priority = task.getPersistedPriority() == null ? task.getPriority() : task.getPersistedPriority();
+        statsService.onTaskDeleted(task.getProject().getId(), status, priority);
+        outboxService.record(OutboxEventType.TASK_DELETED, task.getId(), TaskService.taskPayload(task));
+        eventPublisher.publishEvent(new ProjectChangedEvent(task.getProject().getId()));
     }
 
+    //Deletes the task with a single DELETE ... RETURNING; NoSuchElementException if it is not in the project.
     @Transactional
-    public void deleteTask(UUID taskId){
-        this.taskRepository.deleteById(taskId);
+    public void deleteTask(UUID taskId, UUID projectId){
+        TaskRepository.DeletedTask deleted = this.taskRepository.deleteByIdAndProjectId(taskId, projectId).orElseThrow();
+        TaskStatus status = TaskStatus.valueOf(deleted.getStatus());
+        TaskPriority priority = TaskPriority.valueOf(deleted.getPriority());
+        statsService.onTaskDeleted(projectId, status, priority);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("taskId", taskId);
+        payload.put("projectId", projectId);
+        payload.put("status", status);
+        payload.put("priority", priority);
+        outboxService.record(OutboxEventType.TASK_DELETED, taskId, payload);
+        eventPublisher.publishEvent(new ProjectChangedEvent(projectId));
     }
 
     public void deleteAll() {
         repository.deleteAll();
+        eventPublisher.publishEvent(ProjectChangedEvent.all());
+    }
+
+    private static Map<String, Object> memberPayload(User user, Project project, ProjectRole role) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("projectId", project.getId());
+        payload.put("userId", user.getId());
+        payload.put("role", role);
+        return payload;
     }
 }
@@ -0,0 +1,25 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically rebuilds the materialized task counters of every project.
+ */
+@Component
+public class ProjectStatsReconciler {
+    private final Logger logger = LoggerFactory.getLogger(ProjectStatsReconciler.class);
+    private final ProjectStatsService statsService;
+
+    public ProjectStatsReconciler(ProjectStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @Scheduled(initialDelayString = "${app.stats.reconcile-interval-ms:600000}", fixedDelayString = "${app.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        int projects = statsService.reconcile();
+        logger.debug("Reconciled task stats of {} projects", projects);
+    }
+}
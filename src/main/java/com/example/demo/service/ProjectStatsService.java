@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ProjectTaskStats;
+import com.example.demo.model.Task;
+import com.example.demo.model.TaskPriority;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.repository.ProjectTaskStatsRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class ProjectStatsService {
+    private final ProjectTaskStatsRepository repository;
+
+    public ProjectStatsService(ProjectTaskStatsRepository repository) {
+        this.repository = repository;
+    }
+
+    public Optional<ProjectTaskStats> getStats(UUID projectId) {
+        return repository.findById(projectId);
+    }
+
+    /**
+     * Applies the counter changes caused by saving a task. The previous state is taken from the
+     * values loaded from the database, so both creations and updates are handled.
+     */
+    public void onTaskSaved(Task task) {
+        apply(task.getProject().getId(), task.getPersistedStatus(), task.getPersistedPriority(), task.getStatus(), task.getPriority());
+        task.rememberPersistedState();
+    }
+
+    // Un movimiento en el tablero solo puede cambiar el estado
+    public void onTaskMoved(UUID projectId, TaskStatus previousStatus, TaskStatus status, TaskPriority priority) {
+        apply(projectId, previousStatus, priority, status, priority);
+    }
+
+    public void onTaskDeleted(UUID projectId, TaskStatus status, TaskPriority priority) {
+        apply(projectId, status, priority, null, null);
+    }
+
+    /**
+     * Recomputes every project's counters from the tasks table. Corrects any drift caused by
+     * writes that bypass {@link ProjectService} and refreshes the overdue count.
+     *
+     * @return number of projects reconciled
+     */
+    public int reconcile() {
+        return repository.reconcileAll(Instant.now());
+    }
+
+    public void reconcile(UUID projectId) {
+        repository.reconcileProject(projectId, Instant.now());
+    }
+
+    // Una sola sentencia por escritura; si no cambia ni el estado ni la prioridad no se toca la tabla.
+    // Los proyectos sin fila (creados antes de existir la tabla) se cuentan desde tasks la primera vez
+    private void apply(UUID projectId, TaskStatus oldStatus, TaskPriority oldPriority, TaskStatus newStatus, TaskPriority newPriority) {
+        if (oldStatus == newStatus && oldPriority == newPriority) {
+            return;
+        }
+        int updated = repository.applyDelta(projectId,
+                diff(TaskStatus.NOT_STARTED, oldStatus, newStatus),
+                diff(TaskStatus.IN_PROGRESS, oldStatus, newStatus),
+                diff(TaskStatus.DONE, oldStatus, newStatus),
+                diff(TaskPriority.LOW, oldPriority, newPriority),
+                diff(TaskPriority.MEDIUM, oldPriority, newPriority),
+                diff(TaskPriority.HIGH, oldPriority, newPriority),
+                diff(TaskPriority.CRITICAL, oldPriority, newPriority));
+        if (updated == 0) {
+            // La tarea guardada puede seguir pendiente en el contexto de persistencia y el recuento la tiene que ver
+            repository.flush();
+            repository.reconcileProject(projectId, Instant.now());
+        }
+    }
+
+    private static <E extends Enum<E>> long diff(E value, E before, E after) {
+        return (value == after ? 1 : 0) - (value == before ? 1 : 0);
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.demo.service;
+
+import com.example.demo.controller.dto.ProjectImportSummaryDto;
+import com.example.demo.controller.dto.ProjectTransferLine;
+import com.example.demo.controller.dto.ProjectTransferLine.CommentLine;
+import com.example.demo.controller.dto.ProjectTransferLine.MemberLine;
+import com.example.demo.controller.dto.ProjectTransferLine.ProjectLine;
+import com.example.demo.controller.dto.ProjectTransferLine.TaskLine;
+import com.example.demo.model.OutboxEventType;
+import com.example.demo.model.ProjectRole;
+import com.example.demo.model.TaskPriority;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Exports a whole project as NDJSON ({@link ProjectTransferLine}) and imports it back.
+ * <p>
+ * Both directions go through JDBC, not JPA, so memory use does not depend on the size of the project.
+ * Export reads from cursors and writes each row as it arrives. Import parses one line at a time and
+ * writes batched inserts. The new ids are derived from the original ids plus a per-import salt,
+ * so comments can point to their new task without an id map in memory.
+ */
+@Service
+public class ProjectTransferService {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectTransferService.class);
+
+    private static final String INSERT_PROJECT =
+            "INSERT INTO projects (id, name, description, start_date, end_date, version) VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_MEMBER =
+            "INSERT INTO user_has_projects (user_id, project_id, role) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_TASK =
+            "INSERT INTO tasks (id, name, description, status, priority, due_date, assigned_user_id, project_id, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_COMMENT =
+            "INSERT INTO comments (id, content, created_at, updated_at, author, task_id, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final ProjectStatsService statsService;
+    private final OutboxService outboxService;
+    private final int batchSize;
+    private final long progressInterval;
+
+    public ProjectTransferService(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            ProjectStatsService statsService,
+            OutboxService outboxService,
+            @Value("${app.transfer.batch-size:1000}") int batchSize,
+            @Value("${app.transfer.progress-interval:100000}") long progressInterval
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(batchSize);
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writerFor(ProjectTransferLine.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        this.statsService = statsService;
+        this.outboxService = outboxService;
+        this.batchSize = batchSize;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Writes the project, its members, tasks and comments to the stream, one JSON document per line.
+     * Runs in a read-only transaction so the driver can use server-side cursors.
+     */
+    @Transactional(readOnly = true)
+    public void export(UUID projectId, OutputStream out) throws IOException {
+        Progress progress = new Progress("export", projectId);
+        try (SequenceWriter writer = lineWriter.writeValues(out)) {
+            List<ProjectLine> project = jdbcTemplate.query(
+                    "SELECT id, name, description, start_date, end_date FROM projects WHERE id = ?",
+                    (rs, i) -> new ProjectLine(rs.getObject("id", UUID.class), rs.getString("name"),
+                            rs.getString("description"), instant(rs, "start_date"), instant(rs, "end_date")),
+                    projectId);
+            if (project.isEmpty()) {
+                throw new NoSuchElementException("Project not found");
+            }
+            write(writer, project.get(0), progress);
+
+            jdbcTemplate.query(
+                    "SELECT u.username, m.role FROM user_has_projects m JOIN users u ON u.id = m.user_id WHERE m.project_id = ?",
+                    rs -> {
+                        write(writer, new MemberLine(rs.getString("username"), ProjectRole.valueOf(rs.getString("role"))), progress);
+                    },
+                    projectId);
+
+            jdbcTemplate.query(
+                    "SELECT t.id, t.name, t.description, t.status, t.priority, t.due_date, u.username " +
+                            "FROM tasks t LEFT JOIN users u ON u.id = t.assigned_user_id WHERE t.project_id = ?",
+                    rs -> {
+                        write(writer, new TaskLine(rs.getObject("id", UUID.class), rs.getString("name"),
+                                rs.getString("description"), TaskStatus.valueOf(rs.getString("status")),
+                                TaskPriority.valueOf(rs.getString("priority")), instant(rs, "due_date"),
+                                rs.getString("username")), progress);
+                    },
+                    projectId);
+
+            jdbcTemplate.query(
+                    "SELECT c.id, c.task_id, c.content, c.created_at, c.updated_at, u.username " +
+                            "FROM comments c JOIN tasks t ON t.id = c.task_id LEFT JOIN users u ON u.id = c.author " +
+                            "WHERE t.project_id = ?",
+                    rs -> {
+                        write(writer, new CommentLine(rs.getObject("id", UUID.class), rs.getObject("task_id", UUID.class),
+                                rs.getString("content"), instant(rs, "created_at"), instant(rs, "updated_at"),
+                                rs.getString("username")), progress);
+                    },
+                    projectId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.write('\n');
+        progress.done();
+    }
+
+    /**
+     * Creates a new project from an NDJSON stream produced by {@link #export}. The importing user
+     * becomes ADMIN; members, assignees and authors are matched by username and left empty when
+     * the user does not exist here. Everything runs in one transaction, so a failed import leaves nothing behind.
+     */
+    @Transactional
+    public ProjectImportSummaryDto importProject(InputStream in, User importer) throws IOException {
+        Importer state = new Importer(importer);
+        try (MappingIterator<ProjectTransferLine> lines = objectMapper.readerFor(ProjectTransferLine.class).readValues(in)) {
+            while (lines.hasNextValue()) {
+                state.accept(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed line: " + e.getOriginalMessage());
+        }
+        return state.finish();
+    }
+
+    private void write(SequenceWriter writer, ProjectTransferLine line, Progress progress) {
+        try {
+            writer.write(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        progress.tick();
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+
+    private class Importer {
+        private final User importer;
+        private final String salt = UUID.randomUUID().toString();
+        private final Map<String, Optional<UUID>> usersByName = new HashMap<>();
+        private final List<Object[]> memberBatch = new ArrayList<>();
+        private final List<Object[]> taskBatch = new ArrayList<>();
+        private final List<Object[]> commentBatch = new ArrayList<>();
+        private UUID projectId;
+        private Progress progress;
+        private long members;
+        private long tasks;
+        private long comments;
+        private long unresolvedUsers;
+
+        Importer(User importer) {
+            this.importer = importer;
+        }
+
+        void accept(ProjectTransferLine line) {
+            if (line instanceof ProjectLine project) {
+                startProject(project);
+                return;
+            }
+            if (projectId == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The first line must describe the project");
+            }
+            switch (line) {
+                case MemberLine member -> resolve(member.username())
+                        .filter(userId -> !userId.equals(importer.getId()))
+                        .ifPresent(userId -> {
+                    memberBatch.add(new Object[]{userId, projectId, member.role().name()});
+                    members++;
+                    flushIfFull(memberBatch, INSERT_MEMBER);
+                });
+                case TaskLine task -> {
+                    flush(memberBatch, INSERT_MEMBER);
+                    taskBatch.add(new Object[]{remap(task.id()), task.name(), task.description(), task.status().name(),
+                            task.priority().name(), timestamp(task.dueDate()), resolve(task.assignee()).orElse(null), projectId});
+                    tasks++;
+                    flushIfFull(taskBatch, INSERT_TASK);
+                }
+                case CommentLine comment -> {
+                    // Las tareas van antes en el fichero; se vuelcan para que exista la clave ajena
+                    flush(taskBatch, INSERT_TASK);
+                    commentBatch.add(new Object[]{remap(comment.id()), comment.content(), timestamp(comment.createdAt()),
+                            timestamp(comment.updatedAt()), resolve(comment.author()).orElse(null), remap(comment.taskId())});
+                    comments++;
+                    flushIfFull(commentBatch, INSERT_COMMENT);
+                }
+                case ProjectLine ignored -> throw new IllegalStateException();
+            }
+            progress.tick();
+        }
+
+        ProjectImportSummaryDto finish() {
+            if (projectId == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The file does not contain a project");
+            }
+            flush(memberBatch, INSERT_MEMBER);
+            flush(taskBatch, INSERT_TASK);
+            flush(commentBatch, INSERT_COMMENT);
+            statsService.reconcile(projectId);
+            outboxService.record(OutboxEventType.PROJECT_CREATED, projectId,
+                    Map.of("projectId", projectId, "importedTasks", tasks, "importedComments", comments));
+            progress.done();
+            return new ProjectImportSummaryDto(projectId, members, tasks, comments, unresolvedUsers);
+        }
+
+        private void startProject(ProjectLine project) {
+            if (projectId != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The file contains more than one project");
+            }
+            projectId = remap(project.id());
+            progress = new Progress("import", projectId);
+            jdbcTemplate.update(INSERT_PROJECT, projectId, project.name(), project.description(),
+                    timestamp(project.startDate()), timestamp(project.endDate()));
+            jdbcTemplate.update(INSERT_MEMBER, importer.getId(), projectId, ProjectRole.ADMIN.name());
+            usersByName.put(importer.getUsername(), Optional.of(importer.getId()));
+            progress.tick();
+        }
+
+        private Optional<UUID> resolve(String username) {
+            if (username == null) {
+                return Optional.empty();
+            }
+            return usersByName.computeIfAbsent(username, name -> {
+                List<UUID> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE username = ?", UUID.class, name);
+                if (ids.isEmpty()) {
+                    unresolvedUsers++;
+                    return Optional.empty();
+                }
+                return Optional.of(ids.get(0));
+            });
+        }
+
+        // Id nuevo y estable dentro de la importación: misma entrada, mismo resultado, sin guardar un mapa
+        private UUID remap(UUID originalId) {
+            if (originalId == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every project, task and comment needs an id");
+            }
+            return UUID.nameUUIDFromBytes((salt + originalId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void flushIfFull(List<Object[]> batch, String sql) {
+            if (batch.size() >= batchSize) {
+                flush(batch, sql);
+            }
+        }
+
+        private void flush(List<Object[]> batch, String sql) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(sql, batch);
+            } catch (DataIntegrityViolationException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Invalid data in file (duplicate ids or a comment for a task that is not in the file)");
+            }
+            batch.clear();
+        }
+    }
+
+    private class Progress {
+        private final String operation;
+        private final UUID projectId;
+        private final long startedAt = System.nanoTime();
+        private long lines;
+
+        Progress(String operation, UUID projectId) {
+            this.operation = operation;
+            this.projectId = projectId;
+        }
+
+        void tick() {
+            if (++lines % progressInterval == 0) {
+                logger.info("Project {} {}: {} lines", operation, projectId, lines);
+            }
+        }
+
+        void done() {
+            logger.info("Project {} {} finished: {} lines in {} ms", operation, projectId, lines,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+}
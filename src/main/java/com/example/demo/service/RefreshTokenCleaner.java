@@ -0,0 +1,25 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically deletes expired and revoked refresh token families.
+ */
+@Component
+public class RefreshTokenCleaner {
+    private final Logger logger = LoggerFactory.getLogger(RefreshTokenCleaner.class);
+    private final RefreshTokenService refreshTokenService;
+
+    public RefreshTokenCleaner(RefreshTokenService refreshTokenService) {
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @Scheduled(initialDelayString = "${app.security.refresh.cleanup-interval-ms:3600000}", fixedDelayString = "${app.security.refresh.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenService.deleteExpiredOrRevoked();
+        logger.debug("Deleted {} expired or revoked refresh token families", deleted);
+    }
+}
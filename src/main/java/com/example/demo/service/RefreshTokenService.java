@@ -8,52 +8,143 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
-import java.util.Optional;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.UUID;
 
+/**
+ * Tokens de refresco agrupados en familias: una por sesión (dispositivo).
+ * <p>
+ * El token es {@code <id de familia>.<secreto>}; en la base de datos están el SHA-256 del secreto
+ * vigente y el del anterior. Presentar el secreto anterior pasada la ventana de gracia indica que el token
+ * se ha filtrado y revoca la familia entera; dentro de la ventana se rechaza sin revocar, porque suele ser
+ * otra pestaña que refrescaba a la vez. Un secreto que no coincide con ninguno de los dos se rechaza
+ * sin más, así que conocer el id de una familia no basta para cerrarla.
+ */
 @Service
 public class RefreshTokenService {
     private final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int SECRET_BYTES = 32;
+    private static final char SEPARATOR = '.';
 
     @Value("${jwt.refresh-expiration}")
     private Long refreshTokenDurationMs;
 
+    @Value("${app.security.refresh.reuse-grace-ms:10000}")
+    private long reuseGraceMs;
+
     private final RefreshTokenRepository refreshTokenRepository;
 
     public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
         this.refreshTokenRepository = refreshTokenRepository;
     }
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return this.refreshTokenRepository.findByToken(token);
+    /**
+     * Token emitido al cliente y usuario al que pertenece.
+     */
+    public record IssuedRefreshToken(UUID userId, String token) {
+    }
+
+    // Token ya separado en familia y secreto
+    record ParsedToken(UUID familyId, String secret) {
     }
 
-    public RefreshToken createRefreshToken(User user) {
-        // Eliminar tokens existentes para este usuario
-        this.logger.debug(String.format("Borrar refresh token de usuario con id %s", user.getId()));
-        refreshTokenRepository.deleteByUserId(user.getId());
-        refreshTokenRepository.flush();
+    // Token de refresco para un login. Si el dispositivo ya presenta un token vigente del mismo usuario se rota
+    // esa familia, así que un nuevo login no deja vivo el token anterior ni añade filas; si no, se abre una
+    // familia nueva y las demás sesiones del usuario siguen siendo válidas
+    public IssuedRefreshToken createRefreshToken(User user, String presentedToken) {
+        ParsedToken parsed = parse(presentedToken);
+        if (parsed != null) {
+            String hash = hash(parsed.secret());
+            String next = newSecret();
+            Instant now = Instant.now();
+            boolean reissued = refreshTokenRepository.reissue(parsed.familyId(), hash, user.getId(),
+                    hash(next), now, now.plusMillis(refreshTokenDurationMs)).isPresent();
+            if (reissued) {
+                logger.debug("Login sobre la familia de tokens de refresco {} del usuario {}", parsed.familyId(), user.getId());
+                return new IssuedRefreshToken(user.getId(), format(parsed.familyId(), next));
+            }
+            // Otra cuenta en el mismo dispositivo: su cookie se va a sobrescribir, así que se cierra esa sesión
+            refreshTokenRepository.revokeFamily(parsed.familyId(), hash);
+        }
+        String secret = newSecret();
+        RefreshToken family = refreshTokenRepository.save(
+                new RefreshToken(hash(secret), Instant.now().plusMillis(refreshTokenDurationMs), user));
+        logger.debug("Nueva familia de tokens de refresco {} para el usuario {}", family.getId(), user.getId());
+        return new IssuedRefreshToken(user.getId(), format(family.getId(), secret));
+    }
 
-        RefreshToken refreshToken = new RefreshToken(
-                UUID.randomUUID().toString(),
-                Instant.now().plusMillis(refreshTokenDurationMs),
-                user
-        );
-        return refreshTokenRepository.save(refreshToken);
+    // Sustituye el secreto de la familia y alarga su caducidad. Si el secreto es el de la generación
+    // anterior y ya ha pasado la ventana de gracia, se revoca la familia
+    public IssuedRefreshToken rotate(String token) {
+        ParsedToken parsed = parse(token);
+        if (parsed == null) {
+            throw new TokenRefreshException("Invalid refresh token");
+        }
+        String hash = hash(parsed.secret());
+        String next = newSecret();
+        Instant now = Instant.now();
+        UUID userId = refreshTokenRepository.rotate(parsed.familyId(), hash, hash(next), now, now.plusMillis(refreshTokenDurationMs))
+                .orElse(null);
+        if (userId == null) {
+            refreshTokenRepository.revokeOnReuse(parsed.familyId(), hash, now.minusMillis(reuseGraceMs), now).ifPresent(generation ->
+                    logger.warn("Reutilización de un token de refresco de la familia {} (generación {}); familia revocada",
+                            parsed.familyId(), generation));
+            throw new TokenRefreshException("Invalid or expired refresh token");
+        }
+        return new IssuedRefreshToken(userId, format(parsed.familyId(), next));
     }
 
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(token);
-            throw new TokenRefreshException("Token de refresco expirado");
+    // Revoca la familia del token con un único UPDATE; no hace nada si el secreto no es el vigente
+    public void revoke(String token) {
+        ParsedToken parsed = parse(token);
+        if (parsed != null) {
+            refreshTokenRepository.revokeFamily(parsed.familyId(), hash(parsed.secret()));
         }
-        return token;
     }
 
-    public void deleteRefreshToken(UUID tokenId) {
-        refreshTokenRepository.deleteById(tokenId);
+    public int deleteExpiredOrRevoked() {
+        return refreshTokenRepository.deleteExpiredOrRevoked(Instant.now());
+    }
+
+    static String format(UUID familyId, String secret) {
+        return familyId.toString() + SEPARATOR + secret;
+    }
+
+    static ParsedToken parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int separator = token.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == token.length() - 1) {
+            return null;
+        }
+        try {
+            return new ParsedToken(UUID.fromString(token.substring(0, separator)), token.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    static String newSecret() {
+        byte[] bytes = new byte[SECRET_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,487 @@
+package com.example.demo.service;
+
+import com.example.demo.controller.dto.SyntheticSeedDto;
+import com.example.demo.controller.dto.SyntheticSeedSummaryDto;
+import com.example.demo.model.ProjectRole;
+import com.example.demo.model.TaskPriority;
+import com.example.demo.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Generates large synthetic datasets for load tests: N users, M projects, a skewed membership
+ * distribution and millions of tasks and comments.
+ * <p>
+ * Sizes follow Zipf distributions, so a few projects hold most tasks and a few tasks hold most
+ * comments, as in real boards. Rows are written with batched JDBC inserts, committed per batch,
+ * so a large run does not hold one huge transaction. Generated usernames share a per-run prefix,
+ * so several runs can coexist in the same database. All users share the same password and its
+ * hash is computed once.
+ * <p>
+ * {@link #replaceWithCopy} is the bulk mode used to reset staging and performance environments:
+ * it truncates every table and streams the rows through the PostgreSQL {@code COPY} protocol.
+ */
+@Service
+@Profile("dev")
+public class SyntheticDataGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String PASSWORD = "password";
+
+    static final Table USERS = new Table("users", "id", "username", "email", "password");
+    static final Table PROJECTS = new Table("projects", "id", "name", "description", "start_date", "end_date", "version");
+    static final Table MEMBERS = new Table("user_has_projects", "user_id", "project_id", "role");
+    static final Table TASKS = new Table("tasks", "id", "name", "description", "status", "priority", "due_date", "assigned_user_id", "project_id", "version");
+    static final Table COMMENTS = new Table("comments", "id", "content", "created_at", "updated_at", "author", "task_id", "version");
+
+    // Último byte del msb de los ids generados, para que no coincidan entre tablas
+    private static final long USER_KIND = 1, PROJECT_KIND = 2, TASK_KIND = 3, COMMENT_KIND = 4;
+
+    // Orden indiferente: TRUNCATE de todas a la vez no necesita respetar las claves ajenas. CASCADE vacía
+    // también las tablas que ya no usa la aplicación pero siguen referenciándolas (refresh_tokens en bases
+    // creadas antes de refresh_sessions; ddl-auto=update no las borra)
+    private static final List<String> ALL_TABLES = List.of("comments", "tasks", "user_has_projects", "user_has_user",
+            "refresh_sessions", "blacklisted_tokens", "idempotency_keys", "project_task_stats", "outbox_events", "projects", "users");
+
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PasswordEncoder passwordEncoder;
+    private final ProjectStatsService statsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final long progressInterval;
+
+    public SyntheticDataGenerator(
+            DataSource dataSource,
+            EntityManagerFactory entityManagerFactory,
+            PasswordEncoder passwordEncoder,
+            ProjectStatsService statsService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.seed.batch-size:1000}") int batchSize,
+            @Value("${app.seed.progress-interval:100000}") long progressInterval
+    ) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManagerFactory = entityManagerFactory;
+        this.passwordEncoder = passwordEncoder;
+        this.statsService = statsService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.progressInterval = progressInterval;
+    }
+
+    public SyntheticSeedSummaryDto generate(SyntheticSeedDto spec) {
+        return generate(spec, BatchInsertWriter::new);
+    }
+
+    /**
+     * Replaces all data with a synthetic dataset: truncates every table and loads the rows with
+     * {@code COPY ... FROM STDIN}, in one transaction. The second-level cache is cleared because
+     * the truncated rows never went through Hibernate.
+     */
+    @Transactional
+    public SyntheticSeedSummaryDto replaceWithCopy(SyntheticSeedDto spec) {
+        jdbcTemplate.execute("TRUNCATE TABLE " + String.join(", ", ALL_TABLES) + " CASCADE");
+        entityManagerFactory.getCache().evictAll();
+        SyntheticSeedSummaryDto summary = generate(spec, CopyWriter::new);
+        entityManagerFactory.getCache().evictAll();
+        return summary;
+    }
+
+    private SyntheticSeedSummaryDto generate(SyntheticSeedDto spec, Function<Table, RowWriter> writers) {
+        long started = System.currentTimeMillis();
+        long seed = spec.seedOrDefault();
+        Run run = new Run(spec, seed, passwordEncoder.encode(PASSWORD), Instant.now());
+        logger.info("Generating synthetic data (seed {}, prefix {}): {} users, {} projects, {} tasks, {} comments",
+                seed, run.prefix, spec.users(), spec.projects(), spec.tasks(), spec.comments());
+
+        try (RowWriter writer = writers.apply(USERS)) {
+            run.writeUsers(writer);
+        }
+        try (RowWriter writer = writers.apply(PROJECTS)) {
+            run.writeProjects(writer);
+        }
+        long memberships;
+        try (RowWriter writer = writers.apply(MEMBERS)) {
+            run.writeMemberships(writer);
+            memberships = writer.count();
+        }
+        try (RowWriter writer = writers.apply(TASKS)) {
+            run.writeTasks(writer);
+        }
+        try (RowWriter writer = writers.apply(COMMENTS)) {
+            run.writeComments(writer);
+        }
+
+        // Las filas no pasan por ProjectService: se recalculan los contadores y se vacía la caché de respuestas
+        statsService.reconcile();
+        eventPublisher.publishEvent(ProjectChangedEvent.all());
+
+        long elapsed = System.currentTimeMillis() - started;
+        logger.info("Synthetic data generated in {} ms", elapsed);
+        return new SyntheticSeedSummaryDto(run.prefix, PASSWORD, seed, spec.users(), spec.projects(), memberships,
+                spec.tasks(), spec.comments(), elapsed);
+    }
+
+    /**
+     * Destination of the generated rows of one table, in column order.
+     */
+    interface RowWriter extends AutoCloseable {
+        void write(Object... row);
+
+        long count();
+
+        @Override
+        void close();
+    }
+
+    record Table(String name, String... columns) {
+        String insertSql() {
+            return "INSERT INTO " + name + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        }
+
+        String copySql() {
+            return "COPY " + name + " (" + String.join(", ", columns) + ") FROM STDIN";
+        }
+    }
+
+    // Cuenta las filas y registra el progreso; las subclases deciden cómo se envían
+    private abstract class CountingWriter implements RowWriter {
+        protected final Table table;
+        private long count;
+
+        CountingWriter(Table table) {
+            this.table = table;
+        }
+
+        @Override
+        public final void write(Object... row) {
+            append(row);
+            if (++count % progressInterval == 0) {
+                logger.info("{}: {} rows", table.name(), count);
+            }
+        }
+
+        @Override
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public final void close() {
+            finish();
+            logger.info("{}: {} rows written", table.name(), count);
+        }
+
+        protected abstract void append(Object[] row);
+
+        protected abstract void finish();
+    }
+
+    private final class BatchInsertWriter extends CountingWriter {
+        private final String sql;
+        private final List<Object[]> batch = new ArrayList<>(batchSize);
+
+        BatchInsertWriter(Table table) {
+            super(table);
+            this.sql = table.insertSql();
+        }
+
+        @Override
+        protected void append(Object[] row) {
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] instanceof Timestamp timestamp) {
+                    row[i] = utc(timestamp);
+                }
+            }
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        protected void finish() {
+            flush();
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Streams rows in COPY text format over the connection of the current transaction.
+     */
+    private final class CopyWriter extends CountingWriter {
+        private final String sql;
+        private final Writer out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        CopyWriter(Table table) {
+            super(table);
+            this.sql = table.copySql();
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                this.out = new BufferedWriter(new OutputStreamWriter(
+                        new PGCopyOutputStream(pgConnection, sql, COPY_BUFFER_BYTES), StandardCharsets.UTF_8), COPY_BUFFER_BYTES);
+            } catch (SQLException ex) {
+                throw jdbcTemplate.getExceptionTranslator().translate("COPY", sql, ex);
+            }
+        }
+
+        @Override
+        protected void append(Object[] row) {
+            line.setLength(0);
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    line.append('\t');
+                }
+                appendCopyValue(line, row[i]);
+            }
+            line.append('\n');
+            try {
+                out.append(line);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("COPY into " + table.name() + " failed", ex);
+            }
+        }
+
+        @Override
+        protected void finish() {
+            try {
+                // Cerrar el stream termina el COPY; la conexión sigue siendo de la transacción
+                out.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("COPY into " + table.name() + " failed", ex);
+            }
+        }
+    }
+
+    // Los dos caminos escriben el mismo valor: el instante con desplazamiento UTC explícito, sin depender
+    // de la zona horaria de la JVM ni de la sesión
+    static OffsetDateTime utc(Timestamp timestamp) {
+        return timestamp.toInstant().atOffset(ZoneOffset.UTC);
+    }
+
+    // Formato de texto de COPY: NULL es \N y se escapan la barra, el tabulador y los saltos de línea
+    static void appendCopyValue(StringBuilder line, Object value) {
+        if (value == null) {
+            line.append("\\N");
+            return;
+        }
+        String text = value instanceof Timestamp timestamp
+                ? DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(utc(timestamp))
+                : value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+    }
+
+    /**
+     * State of one generation run. Ids are derived from the seed and the row index, so tasks and
+     * comments can point to users, projects and tasks without keeping their ids in memory.
+     */
+    static final class Run {
+        private final SyntheticSeedDto spec;
+        private final SplittableRandom random;
+        private final long idBase;
+        private final String passwordHash;
+        private final Timestamp now;
+        final String prefix;
+
+        private int[][] members;
+        private int[] taskProject;
+
+        Run(SyntheticSeedDto spec, long seed, String passwordHash, Instant now) {
+            this.spec = spec;
+            this.now = Timestamp.from(now.truncatedTo(ChronoUnit.SECONDS));
+            this.random = new SplittableRandom(seed);
+            this.idBase = random.nextLong() & ~0xFFL;
+            this.prefix = String.format("lt%06x_", random.nextInt(1 << 24));
+            this.passwordHash = passwordHash;
+        }
+
+        UUID id(long kind, long index) {
+            return new UUID(idBase | kind, index);
+        }
+
+        void writeUsers(RowWriter writer) {
+            for (int i = 0; i < spec.users(); i++) {
+                String username = prefix + i;
+                writer.write(id(USER_KIND, i), username, username + "@load.test", passwordHash);
+            }
+        }
+
+        void writeProjects(RowWriter writer) {
+            for (int p = 0; p < spec.projects(); p++) {
+                Timestamp start = new Timestamp(now.getTime() - random.nextLong(180) * 86_400_000L);
+                Timestamp end = random.nextInt(3) == 0 ? null : new Timestamp(start.getTime() + (30 + random.nextLong(335)) * 86_400_000L);
+                writer.write(id(PROJECT_KIND, p), "Project " + p, "Synthetic project " + p + " for load tests", start, end, 0L);
+            }
+        }
+
+        /**
+         * Project sizes follow a Zipf distribution (most projects are small, a few are large) and
+         * members are also drawn by Zipf, so a few users belong to many projects. The first member
+         * of each project is its admin.
+         */
+        void writeMemberships(RowWriter writer) {
+            int maxMembers = Math.min(spec.maxMembersOrDefault(), spec.users());
+            ZipfSampler sizes = new ZipfSampler(maxMembers, spec.skewOrDefault());
+            ZipfSampler users = new ZipfSampler(spec.users(), spec.skewOrDefault());
+            members = new int[spec.projects()][];
+            for (int p = 0; p < spec.projects(); p++) {
+                int size = 1 + sizes.sample(random);
+                int[] chosen = new int[size];
+                int filled = 0;
+                for (int attempt = 0; filled < size && attempt < size * 4; attempt++) {
+                    int candidate = users.sample(random);
+                    if (!contains(chosen, filled, candidate)) {
+                        chosen[filled++] = candidate;
+                    }
+                }
+                // Con mucha concentración puede no haber suficientes usuarios distintos; se completa al azar
+                while (filled < size) {
+                    int candidate = random.nextInt(spec.users());
+                    if (!contains(chosen, filled, candidate)) {
+                        chosen[filled++] = candidate;
+                    }
+                }
+                members[p] = chosen;
+                for (int m = 0; m < size; m++) {
+                    writer.write(id(USER_KIND, chosen[m]), id(PROJECT_KIND, p),
+                            (m == 0 ? ProjectRole.ADMIN : ProjectRole.USER).name());
+                }
+            }
+        }
+
+        void writeTasks(RowWriter writer) {
+            ZipfSampler projects = new ZipfSampler(spec.projects(), spec.skewOrDefault());
+            int tasks = Math.toIntExact(spec.tasks());
+            taskProject = spec.comments() > 0 ? new int[tasks] : null;
+            for (int t = 0; t < tasks; t++) {
+                int p = projects.sample(random);
+                if (taskProject != null) {
+                    taskProject[t] = p;
+                }
+                int[] projectMembers = members[p];
+                // Una de cada cuatro tareas sin asignar
+                UUID assignee = random.nextInt(4) == 0 ? null : id(USER_KIND, projectMembers[random.nextInt(projectMembers.length)]);
+                Timestamp dueDate = new Timestamp(now.getTime() + (random.nextLong(120) - 60) * 86_400_000L);
+                writer.write(id(TASK_KIND, t), "Task " + t, "Synthetic task " + t + " of project " + p,
+                        STATUSES[random.nextInt(STATUSES.length)].name(),
+                        PRIORITIES[random.nextInt(PRIORITIES.length)].name(),
+                        dueDate, assignee, id(PROJECT_KIND, p), 0L);
+            }
+        }
+
+        void writeComments(RowWriter writer) {
+            if (spec.comments() == 0 || spec.tasks() == 0) {
+                return;
+            }
+            ZipfSampler tasks = new ZipfSampler(Math.toIntExact(spec.tasks()), spec.skewOrDefault());
+            for (long c = 0; c < spec.comments(); c++) {
+                int t = tasks.sample(random);
+                int[] projectMembers = members[taskProject[t]];
+                Timestamp createdAt = new Timestamp(now.getTime() - random.nextLong(90L * 86_400_000L));
+                writer.write(id(COMMENT_KIND, c), "Synthetic comment " + c + " on task " + t, createdAt, null,
+                        id(USER_KIND, projectMembers[random.nextInt(projectMembers.length)]), id(TASK_KIND, t), 0L);
+            }
+        }
+
+        private static boolean contains(int[] values, int length, int value) {
+            for (int i = 0; i < length; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Zipf-like sampler over ranks {@code 0..n-1} (rank 0 is the most frequent) using the inverse
+     * of the continuous approximation of the distribution, so it needs no table and samples in O(1)
+     * even for millions of ranks. {@code exponent} 0 is uniform.
+     */
+    static final class ZipfSampler {
+        private final int n;
+        private final double exponent;
+        private final double upper;
+
+        ZipfSampler(int n, double exponent) {
+            if (n < 1) {
+                throw new IllegalArgumentException("n must be positive");
+            }
+            this.n = n;
+            this.exponent = exponent;
+            this.upper = h(n + 1.0);
+        }
+
+        int sample(SplittableRandom random) {
+            double x = hInverse(random.nextDouble() * upper);
+            return Math.min(n - 1, Math.max(0, (int) x - 1));
+        }
+
+        // Integral de x^-s entre 1 y x
+        private double h(double x) {
+            return exponent == 1.0 ? Math.log(x) : (Math.pow(x, 1 - exponent) - 1) / (1 - exponent);
+        }
+
+        private double hInverse(double y) {
+            return exponent == 1.0 ? Math.exp(y) : Math.pow(1 + y * (1 - exponent), 1 / (1 - exponent));
+        }
+    }
+}
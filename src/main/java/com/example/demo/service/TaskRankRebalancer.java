@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import com.example.demo.model.TaskStatus;
+import com.example.demo.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically rebalances the board columns whose ranks got too long after many moves into the same
+ * gap, and gives a rank to tasks created without one (imports and seeding).
+ */
+@Component
+public class TaskRankRebalancer {
+    private final Logger logger = LoggerFactory.getLogger(TaskRankRebalancer.class);
+    private final TaskRepository taskRepository;
+    private final TaskRankService rankService;
+    private final int maxLength;
+
+    public TaskRankRebalancer(TaskRepository taskRepository, TaskRankService rankService,
+                              @Value("${app.tasks.rank.max-length:16}") int maxLength) {
+        this.taskRepository = taskRepository;
+        this.rankService = rankService;
+        this.maxLength = maxLength;
+    }
+
+    @Scheduled(initialDelayString = "${app.tasks.rank.rebalance-interval-ms:600000}", fixedDelayString = "${app.tasks.rank.rebalance-interval-ms:600000}")
+    public void rebalance() {
+        // Una transacción por columna para no bloquear todo el tablero a la vez
+        int columns = 0;
+        for (TaskRepository.BoardColumn column : taskRepository.findColumnsToRebalance(maxLength)) {
+            rankService.rebalance(column.getProjectId(), TaskStatus.valueOf(column.getStatus()));
+            columns++;
+        }
+        logger.debug("Rebalanced task ranks of {} board columns", columns);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import com.example.demo.controller.exception.InvalidRequestException;
+import com.example.demo.model.OutboxEventType;
+import com.example.demo.model.TaskPriority;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.repository.TaskRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Manual order of the tasks inside each status column of a project board.
+ * <p>
+ * Every task has a fractional rank ({@link TaskRanks}); moving a task computes a key between its new
+ * neighbours and updates that single row. When there is no room left (unranked neighbours, duplicated
+ * keys or keys longer than the column) the whole column is rebalanced and the move is retried.
+ * <p>
+ * Moves and rebalances of a column hold a transaction-scoped advisory lock on it, so two moves into
+ * the same gap never read the same neighbours and get the same key.
+ */
+@Service
+public class TaskRankService {
+    // Tamaño de la columna tasks.rank
+    static final int MAX_RANK_LENGTH = 64;
+
+    private final TaskRepository taskRepository;
+    private final ProjectStatsService statsService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskRankService(TaskRepository taskRepository, ProjectStatsService statsService, OutboxService outboxService,
+                           ApplicationEventPublisher eventPublisher, DataSource dataSource) {
+        this.taskRepository = taskRepository;
+        this.statsService = statsService;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Rank that places a task after the last one of the column. Used for new tasks and for tasks whose
+     * status changes through a regular update.
+     */
+    public String rankAtEnd(UUID projectId, TaskStatus status) {
+        String last = taskRepository.findLastRank(projectId, status.name());
+        String rank = TaskRanks.between(last, null);
+        return rank.length() > MAX_RANK_LENGTH ? null : rank;
+    }
+
+    /**
+     * Moves a task to {@code status}, right after {@code afterTaskId} and/or right before
+     * {@code beforeTaskId}; with no neighbours it goes to the end of the column. The task itself is
+     * changed with a single UPDATE.
+     *
+     * @return the new rank of the task
+     * @throws NoSuchElementException if the task is not in the project or a neighbour is not in the column
+     * @throws InvalidRequestException if the task is its own neighbour or the neighbours are out of order
+     */
+    @Transactional
+    public String move(UUID projectId, UUID taskId, TaskStatus status, UUID afterTaskId, UUID beforeTaskId) {
+        if (taskId.equals(afterTaskId) || taskId.equals(beforeTaskId)) {
+            throw new InvalidRequestException("A task cannot be placed next to itself");
+        }
+        // Primero la columna y después la fila, en el mismo orden que rebalance, para no bloquearse entre sí
+        lockColumn(projectId, status);
+        TaskRepository.MovedTask moved = taskRepository.lockForMove(taskId, projectId)
+                .orElseThrow(() -> new NoSuchElementException("Task " + taskId + " is not in project " + projectId));
+        String rank = rankBetween(projectId, taskId, status, afterTaskId, beforeTaskId);
+        if (rank == null) {
+            rebalance(projectId, status);
+            rank = rankBetween(projectId, taskId, status, afterTaskId, beforeTaskId);
+            if (rank == null) {
+                throw new IllegalStateException("No rank available after rebalancing column " + status + " of project " + projectId);
+            }
+        }
+
+        taskRepository.moveTask(taskId, projectId, status.name(), rank);
+        TaskStatus previousStatus = TaskStatus.valueOf(moved.getPreviousStatus());
+        statsService.onTaskMoved(projectId, previousStatus, status, TaskPriority.valueOf(moved.getPriority()));
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("taskId", taskId);
+        payload.put("projectId", projectId);
+        payload.put("previousStatus", previousStatus);
+        payload.put("status", status);
+        payload.put("rank", rank);
+        outboxService.record(OutboxEventType.TASK_MOVED, taskId, payload);
+        eventPublisher.publishEvent(new ProjectChangedEvent(projectId));
+        return rank;
+    }
+
+    /**
+     * Gives every task of a column a new, evenly spaced rank of the same length, keeping the current
+     * order (unranked tasks go last). The column and its rows are locked so concurrent moves wait for it.
+     *
+     * @return number of tasks in the column
+     */
+    @Transactional
+    public int rebalance(UUID projectId, TaskStatus status) {
+        lockColumn(projectId, status);
+        List<UUID> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE project_id = ? AND status = ? ORDER BY rank NULLS LAST, id FOR UPDATE",
+                UUID.class, projectId, status.name());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<String> ranks = TaskRanks.evenlySpaced(ids.size());
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            batch.add(new Object[]{ranks.get(i), ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE tasks SET rank = ?, version = version + 1 WHERE id = ?", batch);
+        eventPublisher.publishEvent(new ProjectChangedEvent(projectId));
+        return ids.size();
+    }
+
+    // Bloqueo hasta el final de la transacción; es reentrante, así que rebalance dentro de move no espera
+    private void lockColumn(UUID projectId, TaskStatus status) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext(?))", projectId + ":" + status.name());
+    }
+
+    // Clave entre los vecinos pedidos; null si hace falta rebalancear la columna antes
+    private String rankBetween(UUID projectId, UUID taskId, TaskStatus status, UUID afterTaskId, UUID beforeTaskId) {
+        String column = status.name();
+        String lower;
+        String upper;
+        if (afterTaskId != null) {
+            lower = neighbourRank(afterTaskId, projectId, status);
+            if (lower.isEmpty()) {
+                return null;
+            }
+            upper = beforeTaskId != null
+                    ? neighbourRank(beforeTaskId, projectId, status)
+                    : taskRepository.findNextRank(projectId, column, lower, taskId);
+        } else if (beforeTaskId != null) {
+            upper = neighbourRank(beforeTaskId, projectId, status);
+            if (upper.isEmpty()) {
+                return null;
+            }
+            lower = taskRepository.findPreviousRank(projectId, column, upper, taskId);
+        } else {
+            lower = taskRepository.findLastRank(projectId, column);
+            upper = null;
+        }
+        if (upper != null) {
+            if (upper.isEmpty()) {
+                return null;
+            }
+            int order = (lower == null ? "" : lower).compareTo(upper);
+            if (order > 0) {
+                throw new InvalidRequestException("afterTaskId must come before beforeTaskId");
+            }
+            // Claves repetidas por dos movimientos simultáneos al mismo hueco
+            if (order == 0) {
+                return null;
+            }
+        }
+        String rank = TaskRanks.between(lower, upper);
+        return rank.length() > MAX_RANK_LENGTH ? null : rank;
+    }
+
+    private String neighbourRank(UUID neighbourId, UUID projectId, TaskStatus status) {
+        return taskRepository.findRankInColumn(neighbourId, projectId, status.name())
+                .orElseThrow(() -> new NoSuchElementException("Task " + neighbourId + " is not in column " + status));
+    }
+}
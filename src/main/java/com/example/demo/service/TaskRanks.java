@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Claves de orden fraccionarias para las tareas de una columna del tablero.
+ * <p>
+ * Una clave es la parte decimal de un número en base 62 ({@code 0-9A-Za-z}, orden ASCII), sin ceros al
+ * final. Con esa condición el orden lexicográfico (collation "C") coincide con el numérico y entre dos
+ * claves siempre cabe otra, así que mover una tarea no obliga a renumerar las demás.
+ */
+public final class TaskRanks {
+    static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    static final int BASE = DIGITS.length();
+    // Dígitos con los que se suma o resta al añadir por los extremos: 62^2 claves antes de crecer
+    static final int END_DEPTH = 3;
+
+    private TaskRanks() {
+    }
+
+    /**
+     * Clave estrictamente entre {@code lower} y {@code upper}. Un {@code lower} nulo o vacío es el
+     * principio de la columna y un {@code upper} nulo el final. Al añadir por los extremos se suma o resta
+     * una unidad en el último de {@value #END_DEPTH} dígitos, así que las claves apenas crecen.
+     */
+    public static String between(String lower, String upper) {
+        String a = lower == null ? "" : lower;
+        if (upper != null && a.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Rank '" + a + "' is not lower than '" + upper + "'");
+        }
+        if (upper == null && !a.isEmpty()) {
+            return increment(a);
+        }
+        if (a.isEmpty() && upper != null) {
+            String decremented = decrement(upper);
+            if (decremented != null) {
+                return decremented;
+            }
+        }
+        return midpoint(a, upper);
+    }
+
+    /**
+     * {@code count} claves ordenadas, todas de la misma longitud y repartidas por igual, para reordenar
+     * una columna entera. Entre dos consecutivas quedan al menos {@code BASE} huecos.
+     */
+    public static List<String> evenlySpaced(int count) {
+        int width = 1;
+        long space = BASE;
+        while (space / (count + 1L) < BASE) {
+            width++;
+            space *= BASE;
+        }
+        long step = space / (count + 1L);
+        List<String> ranks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ranks.add(encode(step * i, width));
+        }
+        return ranks;
+    }
+
+    // a + 1 en su último dígito (con al menos END_DEPTH dígitos), con acarreo
+    private static String increment(String a) {
+        char[] digits = padded(a);
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = digit(digits[i]);
+            if (digit < BASE - 1) {
+                digits[i] = DIGITS.charAt(digit + 1);
+                return stripTrailingZeros(digits);
+            }
+            digits[i] = '0';
+        }
+        // Todo eran 'z': no hay suma posible con esta longitud
+        return a + DIGITS.charAt(BASE / 2);
+    }
+
+    // b - 1 en su último dígito, con préstamo; null si el resultado sería 0 y hay que buscar el punto medio
+    private static String decrement(String b) {
+        char[] digits = padded(b);
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = digit(digits[i]);
+            if (digit > 0) {
+                digits[i] = DIGITS.charAt(digit - 1);
+                String result = stripTrailingZeros(digits);
+                return result.isEmpty() ? null : result;
+            }
+            digits[i] = DIGITS.charAt(BASE - 1);
+        }
+        return null;
+    }
+
+    private static char[] padded(String key) {
+        char[] digits = new char[Math.max(key.length(), END_DEPTH)];
+        Arrays.fill(digits, '0');
+        key.getChars(0, key.length(), digits, 0);
+        return digits;
+    }
+
+    private static String stripTrailingZeros(char[] digits) {
+        int length = digits.length;
+        while (length > 0 && digits[length - 1] == '0') {
+            length--;
+        }
+        return new String(digits, 0, length);
+    }
+
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            int n = 0;
+            while (n < b.length() && digitAt(a, n) == digit(b.charAt(n))) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(a.length() > n ? a.substring(n) : "", b.substring(n));
+            }
+        }
+        int digitA = digitAt(a, 0);
+        int digitB = b == null ? BASE : digit(b.charAt(0));
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt((digitA + digitB) / 2));
+        }
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.length() > 1 ? a.substring(1) : "", null);
+    }
+
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return stripTrailingZeros(chars);
+    }
+
+    private static int digitAt(String key, int index) {
+        return index < key.length() ? digit(key.charAt(index)) : 0;
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank digit '" + c + "'");
+        }
+        return digit;
+    }
+}
@@ -1,26 +1,84 @@
 package com.example.demo.service;
 
+import com.example.demo.model.OutboxEventType;
 import com.example.demo.model.Project;
 import com.example.demo.model.Task;
 import com.example.demo.model.User;
+import com.example.demo.repository.FieldProjection;
+import com.example.demo.repository.FieldProjectionRepository;
 import com.example.demo.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
     private final TaskRepository taskRepository;
+    private final OutboxService outboxService;
+    private final EntityManager entityManager;
+    private final FieldProjectionRepository projectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TaskService(TaskRepository taskRepository){
+    public TaskService(TaskRepository taskRepository, OutboxService outboxService, EntityManager entityManager,
+                       FieldProjectionRepository projectionRepository, ApplicationEventPublisher eventPublisher){
         this.taskRepository = taskRepository;
+        this.outboxService = outboxService;
+        this.entityManager = entityManager;
+        this.projectionRepository = projectionRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Task> getAllTasksByUser(User user){
         return taskRepository.findAllByUser(user);
     }
 
+    /**
+     * Walks the tasks assigned to a user, ordered by project and due date, with a forward-only cursor.
+     * Each task is handed to the consumer while the transaction is still open, so lazy associations can
+     * be mapped, and detached afterwards.
+     */
+    @Transactional(readOnly = true)
+    public void forEachTaskAssignedTo(UUID userId, Consumer<Task> consumer){
+        try (Stream<Task> tasks = taskRepository.streamAllByUserId(userId)) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    /**
+     * Walks every task of a project with a forward-only cursor. Each task is detached once the
+     * consumer returns, so the persistence context does not grow with the size of the project.
+     */
+    @Transactional(readOnly = true)
+    public void forEachTaskInProject(UUID projectId, Consumer<Task> consumer){
+        try (Stream<Task> tasks = taskRepository.streamAllByProjectId(projectId)) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    /**
+     * Tasks of a project with only the requested fields ({@code fields=} query parameter);
+     * only the columns of those fields are read.
+     */
+    public List<Map<String, Object>> getTaskFieldsByProject(UUID projectId, String fields){
+        return projectionRepository.find(FieldProjection.TASK, FieldProjection.TASK.select(fields),
+                Map.of("projectId", projectId), null);
+    }
+
     public Task getByIdAndProjectId(UUID taskId, UUID projectId){
         return this.taskRepository.findByIdAndProjectId(taskId, projectId).orElseThrow();
     }
@@ -29,19 +87,43 @@ public class TaskService {
         return this.taskRepository.findById(taskId).orElseThrow();
     }
 
+    @Transactional
     public Task saveTask(Task task){
-        return taskRepository.save(task);
+        OutboxEventType type = task.getId() == null ? OutboxEventType.TASK_CREATED : OutboxEventType.TASK_UPDATED;
+        Task saved = taskRepository.save(task);
+        outboxService.record(type, saved.getId(), taskPayload(saved));
+        eventPublisher.publishEvent(new ProjectChangedEvent(saved.getProject().getId()));
+        return saved;
     }
 
+    @Transactional
     public void deleteTask(Task task){
         taskRepository.delete(task);
+        outboxService.record(OutboxEventType.TASK_DELETED, task.getId(), taskPayload(task));
+        eventPublisher.publishEvent(new ProjectChangedEvent(task.getProject().getId()));
     }
 
+    @Transactional
     public void deleteTask(UUID taskId){
         taskRepository.deleteById(taskId);
+        outboxService.record(OutboxEventType.TASK_DELETED, taskId, Map.of("taskId", taskId));
+        // Sin cargar la tarea no se conoce su proyecto
+        eventPublisher.publishEvent(ProjectChangedEvent.all());
     }
 
     public void deleteAll() {
         taskRepository.deleteAll();
+        eventPublisher.publishEvent(ProjectChangedEvent.all());
+    }
+
+    static Map<String, Object> taskPayload(Task task) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("taskId", task.getId());
+        payload.put("projectId", task.getProject() == null ? null : task.getProject().getId());
+        payload.put("assignedUserId", task.getUser() == null ? null : task.getUser().getId());
+        payload.put("status", task.getStatus());
+        payload.put("priority", task.getPriority());
+        payload.put("rank", task.getRank());
+        return payload;
     }
 }
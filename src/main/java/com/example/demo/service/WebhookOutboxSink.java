@@ -0,0 +1,63 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Sends every outbox event as a JSON POST to {@code app.outbox.webhook-url}. A 2xx response is the
+ * acknowledgement; any other status, a timeout or a connection error makes the relay retry the event.
+ * The event id goes in {@code Idempotency-Key} so the receiver can drop redeliveries.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.webhook-url")
+public class WebhookOutboxSink implements OutboxSink {
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+
+    public WebhookOutboxSink(
+            @Value("${app.outbox.webhook-url}") String url,
+            @Value("${app.outbox.webhook-timeout-ms:2000}") int timeoutMillis,
+            ObjectMapper objectMapper
+    ) {
+        // Con timeout: la entrega se hace con el lote bloqueado y no puede quedarse colgada
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMillis);
+        requestFactory.setReadTimeout(timeoutMillis);
+        this.restClient = RestClient.builder().baseUrl(url).requestFactory(requestFactory).build();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", event.getId().toString())
+                .body(body(event))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    // El payload ya es JSON: se anida tal cual en lugar de mandarlo como cadena
+    String body(OutboxEvent event) {
+        try {
+            ObjectNode body = objectMapper.createObjectNode();
+            body.put("id", event.getId().toString());
+            body.put("aggregateType", event.getAggregateType());
+            body.put("aggregateId", event.getAggregateId().toString());
+            body.put("eventType", event.getEventType().name());
+            body.put("createdAt", event.getCreatedAt().toString());
+            body.set("payload", objectMapper.readTree(event.getPayload()));
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.controller;
+
+import com.example.demo.controller.dto.CommentResponseDto;
+import com.example.demo.controller.dto.TaskResponseDto;
+import com.example.demo.controller.dto.UserResponseDto;
+import com.example.demo.controller.responses.Response;
+import com.example.demo.model.TaskPriority;
+import com.example.demo.model.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara el tamaño de los listados de tareas y comentarios en JSON, Smile y CBOR, con y sin gzip.
+ * No necesita base de datos. El coste de CPU de cada formato se mide en ResponseSerializationBenchmark.
+ */
+class ResponseEncodingSizeTest {
+
+    private static final int ELEMENTS = 500;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+
+    @Test
+    void givenTaskList_whenEncodedAsBinary_thenSmallerThanJson() throws IOException {
+        List<UserResponseDto> users = users();
+        List<TaskResponseDto> tasks = new ArrayList<>();
+        UUID projectId = UUID.randomUUID();
+        for (int i = 0; i < ELEMENTS; i++) {
+            tasks.add(new TaskResponseDto(UUID.randomUUID(), "Task " + i, "Description of task number " + i,
+                    TaskStatus.values()[i % TaskStatus.values().length],
+                    TaskPriority.values()[i % TaskPriority.values().length],
+                    Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i * 3600L),
+                    users.get(i % users.size()), projectId, "V" + i));
+        }
+        assertBinaryIsSmaller("tasks", new Response<>("SUCCESS", "Project tasks", tasks, null));
+    }
+
+    @Test
+    void givenCommentList_whenEncodedAsBinary_thenSmallerThanJson() throws IOException {
+        List<UserResponseDto> users = users();
+        List<CommentResponseDto> comments = new ArrayList<>();
+        for (int i = 0; i < ELEMENTS; i++) {
+            Instant createdAt = Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i * 60L);
+            comments.add(new CommentResponseDto(UUID.randomUUID(), "Comment number " + i + " about the task",
+                    createdAt, i % 3 == 0 ? createdAt.plusSeconds(30) : null, users.get(i % users.size())));
+        }
+        assertBinaryIsSmaller("comments", new Response<>("SUCCESS", "Comments found", comments, null));
+    }
+
+    private void assertBinaryIsSmaller(String label, Object response) throws IOException {
+        byte[] jsonBytes = json.writeValueAsBytes(response);
+        byte[] smileBytes = smile.writeValueAsBytes(response);
+        byte[] cborBytes = cbor.writeValueAsBytes(response);
+
+        assertThat(smileBytes.length).as("%s smile vs json", label).isLessThan(jsonBytes.length);
+        assertThat(cborBytes.length).as("%s cbor vs json", label).isLessThan(jsonBytes.length);
+        // Los nombres de campo repetidos son lo que más pesa en JSON: gzip quita al menos la mitad
+        assertThat(gzip(jsonBytes).length).as("%s gzip json vs json", label).isLessThan(jsonBytes.length / 2);
+        assertThat(gzip(smileBytes).length).as("%s gzip smile vs smile", label).isLessThan(smileBytes.length);
+    }
+
+    private static List<UserResponseDto> users() {
+        List<UserResponseDto> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            users.add(new UserResponseDto(UUID.randomUUID(), "user_" + i, "user_" + i + "@example.com"));
+        }
+        return users;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.data;
+
+import com.example.demo.model.OutboxEvent;
+import com.example.demo.model.OutboxEventType;
+import com.example.demo.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class OutboxEventRepositoryTest {
+    @Autowired
+    OutboxEventRepository repository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    void givenPendingEvents_whenLockNextBatch_thenOldestFirstAndLimited() {
+        OutboxEvent first = entityManager.persist(new OutboxEvent(OutboxEventType.TASK_CREATED, UUID.randomUUID(), "{}"));
+        OutboxEvent second = entityManager.persist(new OutboxEvent(OutboxEventType.TASK_UPDATED, UUID.randomUUID(), "{}"));
+        entityManager.persist(new OutboxEvent(OutboxEventType.TASK_DELETED, UUID.randomUUID(), "{}"));
+        entityManager.flush();
+
+        List<OutboxEvent> batch = repository.lockNextBatch(2, Instant.now());
+
+        assertThat(batch).extracting(OutboxEvent::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void givenFailedEvents_whenLockNextBatch_thenDeadLettersAndDelayedRetriesAreSkipped() {
+        Instant now = Instant.now();
+        OutboxEvent dead = new OutboxEvent(OutboxEventType.TASK_CREATED, UUID.randomUUID(), "{}");
+        dead.recordFailure(new IllegalStateException("boom"), now, 1, 1000);
+        OutboxEvent delayed = new OutboxEvent(OutboxEventType.TASK_UPDATED, UUID.randomUUID(), "{}");
+        delayed.recordFailure(new IllegalStateException("boom"), now, 10, 60000);
+        OutboxEvent pending = new OutboxEvent(OutboxEventType.TASK_DELETED, UUID.randomUUID(), "{}");
+        entityManager.persist(dead);
+        entityManager.persist(delayed);
+        entityManager.persist(pending);
+        entityManager.flush();
+
+        List<OutboxEvent> batch = repository.lockNextBatch(10, now);
+
+        assertThat(batch).extracting(OutboxEvent::getId).containsExactly(pending.getId());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotPathMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HotPathMetrics metrics = new HotPathMetrics(registry);
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void givenResolvedHandler_whenTimed_thenTaggedWithRoutePattern() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/project/123/tasks");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/project/{projectId}/tasks");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        String result = metrics.time("app.test", () -> "ok", "step", "parse");
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(registry.get("app.test")
+                .tag("step", "parse")
+                .tag(HotPathMetrics.ENDPOINT_TAG, "GET /api/project/{projectId}/tasks")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenMeasureTakenBeforeMapping_whenRecordedAfter_thenTaggedWithRoutePattern() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/project/123/tasks");
+
+        metrics.timeDeferred(request, "app.test", () -> "ok", "step", "parse");
+        assertThat(registry.find("app.test").timer()).isNull();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/project/{projectId}/tasks");
+        metrics.recordDeferred(request);
+        metrics.recordDeferred(request);
+
+        assertThat(registry.get("app.test")
+                .tag("step", "parse")
+                .tag(HotPathMetrics.ENDPOINT_TAG, "GET /api/project/{projectId}/tasks")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenNoRequest_whenTimed_thenTaggedWithoutEndpoint() {
+        metrics.stop(metrics.start(), "app.test");
+
+        assertThat(registry.get("app.test")
+                .tag(HotPathMetrics.ENDPOINT_TAG, HotPathMetrics.NO_ENDPOINT)
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenFailingBody_whenTimed_thenStillRecorded() {
+        try {
+            metrics.time("app.test", () -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException ignored) {
+        }
+
+        assertThat(registry.get("app.test").timer().count()).isEqualTo(1);
+    }
+}
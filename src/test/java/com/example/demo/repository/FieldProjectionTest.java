@@ -0,0 +1,36 @@
+package com.example.demo.repository;
+
+import com.example.demo.controller.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldProjectionTest {
+
+    @Test
+    void givenFields_whenSelect_thenIdIsAddedAndDefinitionOrderKept() {
+        assertThat(FieldProjection.TASK.select("status, name")).containsExactly("id", "name", "status");
+    }
+
+    @Test
+    void givenScalarFields_whenJpql_thenOnlyThoseColumnsAndNoJoin() {
+        String jpql = FieldProjection.TASK.jpql(List.of("id", "name", "status"), null);
+        assertThat(jpql).isEqualTo("SELECT t.id, t.name, t.status FROM Task t WHERE t.project.id = :projectId");
+    }
+
+    @Test
+    void givenNestedField_whenJpql_thenJoinIsAdded() {
+        String jpql = FieldProjection.COMMENT.jpql(FieldProjection.COMMENT.select("user"), "c.createdAt");
+        assertThat(jpql).contains("u.username").contains("LEFT JOIN c.user u").endsWith("ORDER BY c.createdAt");
+    }
+
+    @Test
+    void givenUnknownField_whenSelect_thenBadRequest() {
+        assertThatThrownBy(() -> FieldProjection.PROJECT.select("name,password"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("password");
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AdmissionControlFilterTest {
+
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(2, 0, 1,
+            mock(HandlerExceptionResolver.class), new SimpleMeterRegistry());
+
+    @Test
+    void givenSyncRequest_whenFiltered_thenPermitReleasedOnReturn() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/project"), new MockHttpServletResponse(),
+                (request, response) -> assertThat(filter.inFlight()).isEqualTo(1));
+
+        assertThat(filter.inFlight()).isZero();
+    }
+
+    @Test
+    void givenAsyncRequest_whenFiltered_thenPermitHeldUntilComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/project/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(filter.inFlight()).isEqualTo(1);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(filter.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.security;
+
+import com.example.demo.controller.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void givenHashWithOtherCost_whenUpgradeEncoding_thenTrue() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(6, 1, 1, 1)) {
+            String sameCost = encoder.encode("secret");
+            String otherCost = new BCryptPasswordEncoder(5).encode("secret");
+
+            assertThat(encoder.matches("secret", sameCost)).isTrue();
+            assertThat(encoder.upgradeEncoding(sameCost)).isFalse();
+            assertThat(encoder.upgradeEncoding(otherCost)).isTrue();
+            assertThat(encoder.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+        }
+    }
+
+    @Test
+    void givenFullQueue_whenMatches_thenRejectedWithRetryAfter() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 10, 1, 1, 7)) {
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (encoder.executor().getQueue().isEmpty()) {
+                assertThat(System.nanoTime()).as("second hash queued").isLessThan(deadline);
+                Thread.onSpinWait();
+            }
+
+            assertThatThrownBy(() -> encoder.matches("c", "c"))
+                    .isInstanceOf(TooManyRequestsException.class)
+                    .extracting(ex -> ((TooManyRequestsException) ex).getRetryAfterSeconds())
+                    .isEqualTo(7L);
+            assertThat(encoder.rejectedCount()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            // Si una aserción falla, el hash bloqueado no debe quedarse esperando para siempre
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.security;
+
+import com.example.demo.model.IdempotencyKey;
+import com.example.demo.model.User;
+import com.example.demo.service.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyService service = mock(IdempotencyService.class);
+    private final HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+    private final IdempotencyFilter filter = new IdempotencyFilter(service, resolver,
+            List.of("/api/project/{projectId}/tasks"), 1024);
+    private final User user = new User("user", "password", "user@example.com");
+    private final byte[] body = "{\"name\":\"task\"}".getBytes(StandardCharsets.UTF_8);
+
+    @BeforeEach
+    void authenticate() {
+        doReturn(mock(ScheduledFuture.class)).when(service).keepClaimed(anyString());
+        user.setId(UUID.randomUUID());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void givenNewKey_whenFiltered_thenHandlerRunsAndResponseStored() throws Exception {
+        when(service.claim(eq(user.getId()), eq("POST"), eq("/api/project/p1/tasks"), eq("key-1"), eq(body)))
+                .thenReturn(new IdempotencyService.Claim(IdempotencyService.ClaimResult.CLAIMED, "hash", null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, new MockFilterChain(new EchoServlet(201)));
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+        verify(service).complete("hash", 201, "application/json", "ETag: \"1\"\nLocation: /api/project/p1/tasks/t1\n", body);
+        verify(service, never()).release(anyString());
+    }
+
+    @Test
+    void givenServerError_whenFiltered_thenKeyReleased() throws Exception {
+        when(service.claim(any(), anyString(), anyString(), anyString(), any()))
+                .thenReturn(new IdempotencyService.Claim(IdempotencyService.ClaimResult.CLAIMED, "hash", null));
+
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain(new EchoServlet(500)));
+
+        verify(service).release("hash");
+        verify(service, never()).complete(anyString(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void givenClientError_whenFiltered_thenKeyReleased() throws Exception {
+        when(service.claim(any(), anyString(), anyString(), anyString(), any()))
+                .thenReturn(new IdempotencyService.Claim(IdempotencyService.ClaimResult.CLAIMED, "hash", null));
+
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain(new EchoServlet(412)));
+
+        verify(service).release("hash");
+        verify(service, never()).complete(anyString(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void givenOversizedBody_whenFiltered_thenRejectedWithoutClaim() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setContent(new byte[2048]);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNull();
+        verify(resolver).resolveException(eq(request), any(), any(),
+                argThat(ex -> ex instanceof ResponseStatusException status && status.getStatusCode() == HttpStatus.PAYLOAD_TOO_LARGE));
+        verify(service, never()).claim(any(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void givenStoredResponse_whenRetried_thenReplayedWithoutHandler() throws Exception {
+        IdempotencyKey stored = mock(IdempotencyKey.class);
+        when(stored.getStatus()).thenReturn(201);
+        when(stored.getContentType()).thenReturn("application/json");
+        when(stored.getHeaders()).thenReturn("ETag: \"1\"\nLocation: /api/project/p1/tasks/t1\n");
+        when(stored.getBody()).thenReturn(body);
+        when(service.claim(any(), anyString(), anyString(), anyString(), any()))
+                .thenReturn(new IdempotencyService.Claim(IdempotencyService.ClaimResult.REPLAY, "hash", stored));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"1\"");
+        assertThat(response.getHeader("Location")).isEqualTo("/api/project/p1/tasks/t1");
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    void givenOtherRoute_whenFiltered_thenNotIntercepted() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setRequestURI("/api/project/p1/members");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        verify(service, never()).claim(any(), anyString(), anyString(), anyString(), any());
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/project/p1/tasks");
+        request.addHeader(IdempotencyFilter.HEADER, "key-1");
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    // Devuelve el cuerpo recibido con el estado indicado
+    private static class EchoServlet extends HttpServlet {
+        private final int status;
+
+        EchoServlet(int status) {
+            this.status = status;
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            response.setContentType("application/json");
+            response.setHeader("ETag", "\"1\"");
+            response.setHeader("Location", "/api/project/p1/tasks/t1");
+            response.getOutputStream().write(request.getInputStream().readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.security;
+
+import com.example.demo.metrics.HotPathMetrics;
+import com.example.demo.service.CustomUserDetailsService;
+import com.example.demo.service.TokenBlacklistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class JwtAuthFilterTest {
+
+    private final JwtTokenUtil jwtTokenUtil = mock(JwtTokenUtil.class);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final TokenBlacklistService blacklistService = mock(TokenBlacklistService.class);
+    private final JwtAuthFilter filter = new JwtAuthFilter(jwtTokenUtil, userDetailsService, blacklistService, null,
+            new HotPathMetrics(new SimpleMeterRegistry()));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void givenPublicPathWithCookie_whenFiltered_thenTokenNotProcessed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setCookies(new Cookie("access_token", "token"));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        verifyNoInteractions(blacklistService, jwtTokenUtil, userDetailsService);
+    }
+
+    @Test
+    void givenErrorDispatchAfterAuthentication_whenFiltered_thenCachedPrincipalRestored() throws Exception {
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", null, List.of());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/error");
+        request.setDispatcherType(DispatcherType.ERROR);
+        request.setCookies(new Cookie("access_token", "token"));
+        request.setAttribute(JwtAuthFilter.AUTHENTICATION_ATTRIBUTE, authentication);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isSameAs(authentication);
+        verifyNoInteractions(blacklistService, jwtTokenUtil, userDetailsService);
+    }
+
+    @Test
+    void givenProtectedPath_whenPublicPathsChecked_thenNotMatched() {
+        assertThat(PublicPaths.matches(new MockHttpServletRequest("GET", "/api/project"))).isFalse();
+        assertThat(PublicPaths.matches(new MockHttpServletRequest("POST", "/api/auth/logout"))).isFalse();
+        assertThat(PublicPaths.matches(new MockHttpServletRequest("GET", "/swagger-ui/index.html"))).isTrue();
+    }
+}
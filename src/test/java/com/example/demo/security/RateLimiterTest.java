@@ -0,0 +1,61 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(42);
+    private final RateLimiter limiter = new RateLimiter(new RateLimitProperties(true, 3, 1, List.of(
+            new RateLimitProperties.Endpoint("/api/project/query", "GET", 1, 0.5))), now::get);
+
+    @Test
+    void givenFullBucket_whenBurstExceedsCapacity_thenRejectedUntilRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("user", "GET", "/api/project").allowed()).isTrue();
+        }
+
+        RateLimiter.Decision rejected = limiter.tryAcquire("user", "GET", "/api/project");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.budget()).isEqualTo(RateLimiter.DEFAULT_BUDGET);
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(1);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("user", "GET", "/api/project").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("user", "GET", "/api/project").allowed()).isFalse();
+        assertThat(limiter.tryAcquire("other", "GET", "/api/project").allowed()).isTrue();
+    }
+
+    @Test
+    void givenEndpointBudget_whenMatched_thenOwnBucket() {
+        assertThat(limiter.tryAcquire("user", "GET", "/api/project/query").allowed()).isTrue();
+
+        RateLimiter.Decision rejected = limiter.tryAcquire("user", "GET", "/api/project/query");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.budget()).isEqualTo("GET /api/project/query");
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(2);
+        // Otro método y el resto de rutas usan el presupuesto por defecto
+        assertThat(limiter.tryAcquire("user", "POST", "/api/project/query").allowed()).isTrue();
+    }
+
+    @Test
+    void givenRefilledBuckets_whenEvicted_thenRemoved() {
+        limiter.tryAcquire("a", "GET", "/api/project");
+        limiter.tryAcquire("b", "GET", "/api/project");
+        limiter.tryAcquire("b", "GET", "/api/project");
+        assertThat(limiter.size()).isEqualTo(2);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.evictIdle();
+        assertThat(limiter.size()).isEqualTo(1);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.evictIdle();
+        assertThat(limiter.size()).isZero();
+    }
+}
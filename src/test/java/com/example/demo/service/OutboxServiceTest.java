@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OutboxEvent;
+import com.example.demo.model.OutboxEventType;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OutboxServiceTest {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final OutboxSink sink = mock(OutboxSink.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<OutboxSink> sinkProvider = mock(ObjectProvider.class);
+    private final OutboxService service = new OutboxService(repository, sinkProvider, new ObjectMapper(), 3, 1000);
+
+    @Test
+    void givenNoSink_whenRelay_thenEventsKept() {
+        assertThat(service.relayBatch(10)).isZero();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void givenRejectedEvent_whenRelay_thenOnlyAcknowledgedDeleted() {
+        OutboxEvent acknowledged = event();
+        OutboxEvent rejected = event();
+        when(sinkProvider.getIfAvailable()).thenReturn(sink);
+        when(repository.lockNextBatch(anyInt(), any(Instant.class))).thenReturn(List.of(acknowledged, rejected));
+        doThrow(new IllegalStateException("503")).when(sink).deliver(rejected);
+
+        assertThat(service.relayBatch(10)).isEqualTo(2);
+
+        verify(repository).deleteAllInBatch(List.of(acknowledged));
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getNextAttemptAt()).isNotNull();
+        assertThat(acknowledged.getAttempts()).isZero();
+    }
+
+    private static OutboxEvent event() {
+        OutboxEvent event = new OutboxEvent(OutboxEventType.TASK_CREATED, UUID.randomUUID(), "{}");
+        ReflectionTestUtils.setField(event, "id", UUID.randomUUID());
+        return event;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void givenCachedResponse_whenServedAgain_thenLoaderNotCalled() {
+        ProjectResponseCache cache = new ProjectResponseCache(objectMapper, 1 << 20, 1 << 20, 60_000);
+        UUID projectId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<byte[]> first = cache.serve(projectId, ProjectResponseCache.View.TASKS, request(), null,
+                () -> List.of(loads.incrementAndGet()));
+        ResponseEntity<byte[]> second = cache.serve(projectId, ProjectResponseCache.View.TASKS, request(), null,
+                () -> List.of(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+    }
+
+    @Test
+    void givenProjectChanged_whenServed_thenReloaded() {
+        ProjectResponseCache cache = new ProjectResponseCache(objectMapper, 1 << 20, 1 << 20, 60_000);
+        UUID projectId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.serve(projectId, ProjectResponseCache.View.MEMBERS, request(), null, () -> List.of(loads.incrementAndGet()));
+        cache.onProjectChanged(new ProjectChangedEvent(projectId));
+        ResponseEntity<byte[]> reloaded = cache.serve(projectId, ProjectResponseCache.View.MEMBERS, request(), null,
+                () -> List.of(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+        assertThat(new String(reloaded.getBody())).isEqualTo("[2]");
+    }
+
+    @Test
+    void givenChangeDuringLoad_whenServed_thenStaleBodyNotStored() {
+        ProjectResponseCache cache = new ProjectResponseCache(objectMapper, 1 << 20, 1 << 20, 60_000);
+        UUID projectId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.serve(projectId, ProjectResponseCache.View.TASKS, request(), null, () -> {
+            cache.invalidate(projectId);
+            return List.of(loads.incrementAndGet());
+        });
+        cache.serve(projectId, ProjectResponseCache.View.TASKS, request(), null, () -> List.of(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenByteLimit_whenFull_thenLeastRecentlyUsedEvicted() {
+        String body = "x".repeat(400);
+        ProjectResponseCache cache = new ProjectResponseCache(objectMapper, 1000, 1000, 60_000);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.serve(first, ProjectResponseCache.View.TASKS, request(), null, () -> { loads.incrementAndGet(); return body; });
+        cache.serve(second, ProjectResponseCache.View.TASKS, request(), null, () -> { loads.incrementAndGet(); return body; });
+        cache.serve(third, ProjectResponseCache.View.TASKS, request(), null, () -> { loads.incrementAndGet(); return body; });
+        cache.serve(first, ProjectResponseCache.View.TASKS, request(), null, () -> { loads.incrementAndGet(); return body; });
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void givenMatchingIfNoneMatch_whenServed_thenNotModified() {
+        ProjectResponseCache cache = new ProjectResponseCache(objectMapper, 1 << 20, 1 << 20, 60_000);
+        UUID projectId = UUID.randomUUID();
+        cache.serve(projectId, ProjectResponseCache.View.TASKS, request(), () -> "3-abc", () -> List.of(1));
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/");
+        conditional.addHeader("If-None-Match", "\"3-abc\"");
+        ResponseEntity<byte[]> response = cache.serve(projectId, ProjectResponseCache.View.TASKS,
+                new ServletWebRequest(conditional, new MockHttpServletResponse()), () -> "3-abc", () -> List.of(2));
+
+        assertThat(response).isNull();
+    }
+
+    @Test
+    void givenVersionChangedElsewhere_whenServed_thenReloaded() {
+        ProjectResponseCache cache = new ProjectResponseCache(objectMapper, 1 << 20, 1 << 20, 60_000);
+        UUID projectId = UUID.randomUUID();
+        cache.serve(projectId, ProjectResponseCache.View.TASKS, request(), () -> "3-abc", () -> List.of(1));
+
+        ResponseEntity<byte[]> response = cache.serve(projectId, ProjectResponseCache.View.TASKS, request(),
+                () -> "4-def", () -> List.of(2));
+
+        assertThat(new String(response.getBody())).isEqualTo("[2]");
+    }
+
+    @Test
+    void givenExpiredEntry_whenServed_thenReloaded() {
+        ProjectResponseCache cache = new ProjectResponseCache(objectMapper, 1 << 20, 1 << 20, 0);
+        UUID projectId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.serve(projectId, ProjectResponseCache.View.MEMBERS, request(), null, () -> List.of(loads.incrementAndGet()));
+        cache.serve(projectId, ProjectResponseCache.View.MEMBERS, request(), null, () -> List.of(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenBinaryAccept_whenAccepts_thenBypassed() {
+        ProjectResponseCache cache = new ProjectResponseCache(objectMapper, 1 << 20, 1 << 20, 60_000);
+        MockHttpServletRequest smile = new MockHttpServletRequest("GET", "/");
+        smile.addHeader("Accept", "application/x-jackson-smile");
+
+        assertThat(cache.accepts(request())).isTrue();
+        assertThat(cache.accepts(new ServletWebRequest(smile))).isFalse();
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
+}
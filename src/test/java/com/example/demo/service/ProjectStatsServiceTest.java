@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import com.example.demo.model.TaskPriority;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.repository.ProjectTaskStatsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectStatsServiceTest {
+
+    private final ProjectTaskStatsRepository repository = mock(ProjectTaskStatsRepository.class);
+    private final ProjectStatsService service = new ProjectStatsService(repository);
+    private final UUID projectId = UUID.randomUUID();
+
+    @Test
+    void givenExistingRow_whenTaskMoved_thenOnlyDeltaApplied() {
+        when(repository.applyDelta(eq(projectId), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(1);
+
+        service.onTaskMoved(projectId, TaskStatus.NOT_STARTED, TaskStatus.DONE, TaskPriority.LOW);
+
+        verify(repository).applyDelta(projectId, -1, 0, 1, 0, 0, 0, 0);
+        verify(repository, never()).reconcileProject(any(), any());
+    }
+
+    @Test
+    void givenMissingRow_whenTaskDeleted_thenProjectCountedFromTasks() {
+        when(repository.applyDelta(eq(projectId), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(0);
+
+        service.onTaskDeleted(projectId, TaskStatus.IN_PROGRESS, TaskPriority.HIGH);
+
+        verify(repository).flush();
+        verify(repository).reconcileProject(eq(projectId), any(Instant.class));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import com.example.demo.controller.exception.TokenRefreshException;
+import com.example.demo.model.RefreshToken;
+import com.example.demo.model.User;
+import com.example.demo.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenService service = new RefreshTokenService(repository);
+
+    {
+        ReflectionTestUtils.setField(service, "refreshTokenDurationMs", 60_000L);
+        ReflectionTestUtils.setField(service, "reuseGraceMs", 10_000L);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    @Test
+    void givenSecret_whenHash_thenFixedWidthHex() {
+        String secret = RefreshTokenService.newSecret();
+
+        assertThat(RefreshTokenService.hash(secret)).hasSize(64).matches("[0-9a-f]{64}");
+        assertThat(RefreshTokenService.hash(secret)).isEqualTo(RefreshTokenService.hash(secret));
+        assertThat(RefreshTokenService.newSecret()).isNotEqualTo(secret);
+    }
+
+    @Test
+    void givenToken_whenParse_thenFamilyAndSecret() {
+        UUID familyId = UUID.randomUUID();
+
+        assertThat(RefreshTokenService.parse(RefreshTokenService.format(familyId, "abc")))
+                .isEqualTo(new RefreshTokenService.ParsedToken(familyId, "abc"));
+        assertThat(RefreshTokenService.parse("not-a-uuid.abc")).isNull();
+        assertThat(RefreshTokenService.parse(familyId + ".")).isNull();
+        assertThat(RefreshTokenService.parse("no-separator")).isNull();
+        assertThat(RefreshTokenService.parse(null)).isNull();
+    }
+
+    @Test
+    void givenCurrentToken_whenRotate_thenSameFamilyWithNewSecret() {
+        UUID familyId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        String token = RefreshTokenService.format(familyId, "current");
+        when(repository.rotate(eq(familyId), eq(RefreshTokenService.hash("current")), anyString(), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.of(userId));
+
+        RefreshTokenService.IssuedRefreshToken issued = service.rotate(token);
+
+        RefreshTokenService.ParsedToken parsed = RefreshTokenService.parse(issued.token());
+        assertThat(issued.userId()).isEqualTo(userId);
+        assertThat(parsed.familyId()).isEqualTo(familyId);
+        verify(repository).rotate(eq(familyId), eq(RefreshTokenService.hash("current")),
+                eq(RefreshTokenService.hash(parsed.secret())), any(Instant.class), any(Instant.class));
+        verify(repository, never()).revokeOnReuse(any(), anyString(), any(), any());
+    }
+
+    @Test
+    void givenOldToken_whenRotate_thenFamilyRevokedAndRejected() {
+        UUID familyId = UUID.randomUUID();
+        when(repository.rotate(any(), anyString(), anyString(), any(Instant.class), any(Instant.class))).thenReturn(Optional.empty());
+        when(repository.revokeOnReuse(eq(familyId), anyString(), any(Instant.class), any(Instant.class))).thenReturn(Optional.of(3));
+        Instant before = Instant.now();
+
+        assertThatThrownBy(() -> service.rotate(RefreshTokenService.format(familyId, "stale")))
+                .isInstanceOf(TokenRefreshException.class);
+        ArgumentCaptor<Instant> graceStart = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).revokeOnReuse(eq(familyId), eq(RefreshTokenService.hash("stale")), graceStart.capture(), now.capture());
+        assertThat(now.getValue()).isAfterOrEqualTo(before);
+        assertThat(graceStart.getValue()).isEqualTo(now.getValue().minusMillis(10_000));
+    }
+
+    @Test
+    void givenSameUserToken_whenLogin_thenFamilyReissued() {
+        UUID familyId = UUID.randomUUID();
+        User user = user();
+        when(repository.reissue(eq(familyId), eq(RefreshTokenService.hash("current")), eq(user.getId()), anyString(), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.of(user.getId()));
+
+        RefreshTokenService.IssuedRefreshToken issued = service.createRefreshToken(user, RefreshTokenService.format(familyId, "current"));
+
+        assertThat(RefreshTokenService.parse(issued.token()).familyId()).isEqualTo(familyId);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void givenUnknownToken_whenLogin_thenNewFamily() {
+        UUID familyId = UUID.randomUUID();
+        User user = user();
+        when(repository.reissue(any(), anyString(), any(), anyString(), any(Instant.class), any(Instant.class))).thenReturn(Optional.empty());
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+
+        RefreshTokenService.IssuedRefreshToken issued = service.createRefreshToken(user, RefreshTokenService.format(familyId, "other"));
+
+        assertThat(RefreshTokenService.parse(issued.token()).familyId()).isNotEqualTo(familyId);
+        verify(repository).revokeFamily(familyId, RefreshTokenService.hash("other"));
+        verify(repository).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void givenMalformedToken_whenRotateOrRevoke_thenNoQuery() {
+        assertThatThrownBy(() -> service.rotate("garbage")).isInstanceOf(TokenRefreshException.class);
+        service.revoke(null);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void givenToken_whenRevoke_thenFamilyRevoked() {
+        UUID familyId = UUID.randomUUID();
+
+        service.revoke(RefreshTokenService.format(familyId, "any"));
+
+        verify(repository).revokeFamily(familyId, RefreshTokenService.hash("any"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.service;
+
+import com.example.demo.controller.dto.SyntheticSeedDto;
+import com.example.demo.model.ProjectRole;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticDataGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-15T09:00:00Z");
+    private static final SyntheticSeedDto SPEC = new SyntheticSeedDto(200, 50, 2000L, 5000L, 10, 1.1, 42L);
+
+    @Test
+    void givenSkew_whenSampling_thenLowRanksDominateAndStayInRange() {
+        SyntheticDataGenerator.ZipfSampler sampler = new SyntheticDataGenerator.ZipfSampler(1000, 1.1);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        assertThat(counts[0]).isGreaterThan(counts[10]);
+        assertThat(counts[10]).isGreaterThan(counts[500]);
+        // Con s=1.1 las 10 primeras posiciones se llevan bastante más que su parte uniforme (1%)
+        int top10 = 0;
+        for (int i = 0; i < 10; i++) {
+            top10 += counts[i];
+        }
+        assertThat(top10).isGreaterThan(30_000);
+    }
+
+    @Test
+    void givenZeroSkew_whenSampling_thenRoughlyUniform() {
+        SyntheticDataGenerator.ZipfSampler sampler = new SyntheticDataGenerator.ZipfSampler(10, 0.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[10];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        for (int count : counts) {
+            assertThat(count).isBetween(9_000, 11_000);
+        }
+    }
+
+    @Test
+    void givenRun_whenWritingMemberships_thenEachProjectHasOneAdminAndDistinctMembers() {
+        SyntheticDataGenerator.Run run = new SyntheticDataGenerator.Run(SPEC, 42L, "hash", NOW);
+        run.writeUsers(new RecordingWriter());
+        run.writeProjects(new RecordingWriter());
+        RecordingWriter memberships = new RecordingWriter();
+        run.writeMemberships(memberships);
+
+        Set<Object> projectsWithAdmin = new HashSet<>();
+        Set<List<Object>> pairs = new HashSet<>();
+        for (Object[] row : memberships.rows) {
+            assertThat(pairs.add(List.of(row[0], row[1]))).isTrue();
+            if (ProjectRole.ADMIN.name().equals(row[2])) {
+                assertThat(projectsWithAdmin.add(row[1])).isTrue();
+            }
+        }
+        assertThat(projectsWithAdmin).hasSize(SPEC.projects());
+    }
+
+    @Test
+    void givenSameSeed_whenGenerating_thenSameRows() {
+        assertThat(comments(new SyntheticDataGenerator.Run(SPEC, 42L, "hash", NOW)))
+                .containsExactlyElementsOf(comments(new SyntheticDataGenerator.Run(SPEC, 42L, "hash", NOW)));
+    }
+
+    @Test
+    void givenTable_whenBuildingInsert_thenOnePlaceholderPerColumn() {
+        assertThat(SyntheticDataGenerator.MEMBERS.insertSql())
+                .isEqualTo("INSERT INTO user_has_projects (user_id, project_id, role) VALUES (?, ?, ?)");
+    }
+
+    @Test
+    void givenTable_whenBuildingCopy_thenColumnsInOrder() {
+        assertThat(SyntheticDataGenerator.MEMBERS.copySql())
+                .isEqualTo("COPY user_has_projects (user_id, project_id, role) FROM STDIN");
+    }
+
+    @Test
+    void givenSpecialCharacters_whenEncodingCopyValue_thenEscaped() {
+        StringBuilder line = new StringBuilder();
+        SyntheticDataGenerator.appendCopyValue(line, "a\\b\tc\nd");
+        line.append('|');
+        SyntheticDataGenerator.appendCopyValue(line, null);
+        line.append('|');
+        SyntheticDataGenerator.appendCopyValue(line, Timestamp.from(NOW));
+
+        assertThat(line.toString()).isEqualTo("a\\\\b\\tc\\nd|\\N|2025-01-15T09:00:00Z");
+    }
+
+    @Test
+    void givenTimestamp_whenWrittenByCopyOrBatch_thenSameUtcInstant() {
+        Timestamp timestamp = Timestamp.from(NOW.plusMillis(250));
+        StringBuilder line = new StringBuilder();
+        SyntheticDataGenerator.appendCopyValue(line, timestamp);
+
+        assertThat(OffsetDateTime.parse(line).toInstant()).isEqualTo(SyntheticDataGenerator.utc(timestamp).toInstant());
+        assertThat(SyntheticDataGenerator.utc(timestamp).getOffset()).isEqualTo(ZoneOffset.UTC);
+    }
+
+    private static List<List<Object>> comments(SyntheticDataGenerator.Run run) {
+        run.writeUsers(new RecordingWriter());
+        run.writeProjects(new RecordingWriter());
+        run.writeMemberships(new RecordingWriter());
+        run.writeTasks(new RecordingWriter());
+        RecordingWriter comments = new RecordingWriter();
+        run.writeComments(comments);
+        assertThat(comments.rows).hasSize(SPEC.comments().intValue());
+        return comments.rows.stream().map(Arrays::asList).toList();
+    }
+
+    private static final class RecordingWriter implements SyntheticDataGenerator.RowWriter {
+        private final List<Object[]> rows = new ArrayList<>();
+
+        @Override
+        public void write(Object... row) {
+            rows.add(row);
+        }
+
+        @Override
+        public long count() {
+            return rows.size();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
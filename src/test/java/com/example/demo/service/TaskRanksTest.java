@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskRanksTest {
+
+    @Test
+    void givenBounds_whenBetween_thenStrictlyInsideWithoutTrailingZero() {
+        assertThat(TaskRanks.between(null, null)).isEqualTo("V");
+        assertThat(TaskRanks.between("V", null)).isEqualTo("V01");
+        assertThat(TaskRanks.between("V0z", null)).isEqualTo("V1");
+        assertThat(TaskRanks.between(null, "V")).isEqualTo("Uzz");
+        assertThat(TaskRanks.between(null, "V01")).isEqualTo("V");
+        assertThat(TaskRanks.between("a", "b")).isEqualTo("aV");
+        assertThat(TaskRanks.between("a1", "a2")).isEqualTo("a1V");
+        assertThat(TaskRanks.between("zzz", null)).isEqualTo("zzzV");
+        assertThat(TaskRanks.between(null, "001")).isEqualTo("000V");
+    }
+
+    @Test
+    void givenRandomMoves_whenInserted_thenOrderMatchesPositions() {
+        Random random = new Random(7);
+        List<String> column = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int position = random.nextInt(column.size() + 1);
+            String lower = position == 0 ? null : column.get(position - 1);
+            String upper = position == column.size() ? null : column.get(position);
+            String rank = TaskRanks.between(lower, upper);
+
+            if (lower != null) {
+                assertThat(rank).isGreaterThan(lower);
+            }
+            if (upper != null) {
+                assertThat(rank).isLessThan(upper);
+            }
+            assertThat(rank).doesNotEndWith("0");
+            column.add(position, rank);
+        }
+    }
+
+    @Test
+    void givenAppendsAtTheEnd_whenRanked_thenKeysStayShort() {
+        String rank = null;
+        String first = null;
+        for (int i = 0; i < 10000; i++) {
+            rank = TaskRanks.between(rank, null);
+            first = TaskRanks.between(null, first == null ? rank : first);
+        }
+        assertThat(rank.length()).isLessThanOrEqualTo(TaskRanks.END_DEPTH);
+        assertThat(first.length()).isLessThanOrEqualTo(TaskRanks.END_DEPTH);
+    }
+
+    @Test
+    void givenCount_whenEvenlySpaced_thenSortedFixedWidthWithRoomBetween() {
+        List<String> ranks = TaskRanks.evenlySpaced(5000);
+
+        assertThat(ranks).hasSize(5000).isSorted().doesNotHaveDuplicates();
+        assertThat(ranks).allSatisfy(rank -> assertThat(rank.length()).isLessThanOrEqualTo(4));
+        assertThat(TaskRanks.between(ranks.get(0), ranks.get(1)).length()).isLessThanOrEqualTo(4);
+        assertThat(TaskRanks.evenlySpaced(0)).isEmpty();
+    }
+
+    @Test
+    void givenInvertedBounds_whenBetween_thenRejected() {
+        assertThatThrownBy(() -> TaskRanks.between("b", "a")).isInstanceOf(IllegalArgumentException.class);
+    }
+}